@@ -0,0 +1,111 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+//Maze files shared by the benchmarks: the examples directory plus generated mazes of growing size
+final class BenchmarkMazes {
+    private static final String SYNTHETIC = "synthetic-";
+    private static final String BRAIDED = "braided-";
+    //Share of inner walls knocked down in a braided maze
+    private static final double BRAID_RATE = 0.1;
+
+    private BenchmarkMazes() {}
+
+    /* Static method: path()
+    Description: resolves "giant" to ./examples/giant.maz.txt, "synthetic-N" to a generated N x N maze
+    and "braided-N" to the same maze with loops (wide search frontiers)
+    Returns: String */
+    static String path(String name) {
+        boolean braided = name.startsWith(BRAIDED);
+        if (!name.startsWith(SYNTHETIC) && !braided) {
+            Path example = Path.of("./examples/" + name + ".maz.txt");
+            if (!Files.exists(example)) {
+                throw new IllegalStateException("Run the benchmarks from the project root: " + example);
+            }
+            return example.toString();
+        }
+        int size = Integer.parseInt(name.substring(braided ? BRAIDED.length() : SYNTHETIC.length()));
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "mazerunner-" + name + ".maz.txt");
+        if (!Files.exists(file)) {
+            try {
+                Path partial = Files.createTempFile(file.getParent(), name, ".tmp");
+                Files.write(partial, braided ? braid(generate(size, 42L), size | 1, 7L) : generate(size, 42L));
+                Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return file.toString();
+    }
+
+    /* Static method: generate()
+    Description: carves a perfect maze (odd size, at least 5) with a randomized depth-first search,
+    with the entry on the West border and the exit on the East border
+    Returns: byte[] (the maze file content) */
+    static byte[] generate(int size, long seed) {
+        int n = size | 1;
+        byte[][] cells = new byte[n][n];
+        for (byte[] row : cells) {
+            Arrays.fill(row, (byte) '#');
+        }
+        Random random = new Random(seed);
+        int[][] moves = {{-2, 0}, {0, 2}, {2, 0}, {0, -2}};
+        ArrayDeque<int[]> stack = new ArrayDeque<>();
+        cells[1][1] = ' ';
+        stack.push(new int[] {1, 1});
+        while (!stack.isEmpty()) {
+            int[] cell = stack.peek();
+            int start = random.nextInt(4);
+            boolean carved = false;
+            for (int k = 0; k < 4 && !carved; k++) {
+                int[] move = moves[(start + k) & 3];
+                int row = cell[0] + move[0];
+                int col = cell[1] + move[1];
+                if (row > 0 && col > 0 && row < n - 1 && col < n - 1 && cells[row][col] == '#') {
+                    cells[cell[0] + move[0] / 2][cell[1] + move[1] / 2] = ' ';
+                    cells[row][col] = ' ';
+                    stack.push(new int[] {row, col});
+                    carved = true;
+                }
+            }
+            if (!carved) {
+                stack.pop();
+            }
+        }
+        cells[1 + 2 * random.nextInt(n / 2)][0] = ' ';
+        cells[1 + 2 * random.nextInt(n / 2)][n - 1] = ' ';
+
+        byte[] content = new byte[n * (n + 1)];
+        for (int row = 0; row < n; row++) {
+            System.arraycopy(cells[row], 0, content, row * (n + 1), n);
+            content[row * (n + 1) + n] = '\n';
+        }
+        return content;
+    }
+
+    /* Static method: braid()
+    Description: knocks down a share of the walls between two passages of a generated maze, adding loops
+    Returns: byte[] (the maze file content, changed in place) */
+    static byte[] braid(byte[] content, int n, long seed) {
+        Random random = new Random(seed);
+        for (int row = 1; row < n - 1; row++) {
+            for (int col = 1; col < n - 1; col++) {
+                //Walls between two cells sit on exactly one even coordinate
+                boolean between = (row & 1) != (col & 1);
+                int index = row * (n + 1) + col;
+                if (between && content[index] == '#' && random.nextDouble() < BRAID_RATE) {
+                    content[index] = ' ';
+                }
+            }
+        }
+        return content;
+    }
+
+}
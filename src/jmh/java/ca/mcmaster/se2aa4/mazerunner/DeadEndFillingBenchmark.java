@@ -0,0 +1,63 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Scaling of parallel dead-end filling with the fork-join pool size, each call fills a fresh copy of the grid
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DeadEndFillingBenchmark {
+
+    @Param({"giant", "synthetic-1001", "synthetic-3001"})
+    public String maze;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private MazeGrid original;
+    private int[] entry;
+    private int[] exit;
+    private ForkJoinPool pool;
+    private MazeGrid grid;
+
+    @Setup
+    public void setup() {
+        Maze loadedMaze = new Maze(BenchmarkMazes.path(maze));
+        original = loadedMaze.getGrid();
+        entry = loadedMaze.getEntry();
+        exit = loadedMaze.getExit();
+        pool = new ForkJoinPool(threads);
+    }
+
+    @Setup(Level.Invocation)
+    public void copyGrid() {
+        grid = original.copy();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public long fill() {
+        return new DeadEndFiller(grid, entry, exit).fill(pool);
+    }
+
+}
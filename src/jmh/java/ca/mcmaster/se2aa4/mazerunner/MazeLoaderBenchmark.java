@@ -0,0 +1,87 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//Throughput of the memory-mapped loader and the binary cache against the former double-read loader
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MazeLoaderBenchmark {
+
+    @Param({"tiny", "small", "medium", "large", "huge", "giant", "synthetic-1001", "synthetic-3001"})
+    public String maze;
+
+    private String inputFilePath;
+    private String cachedFilePath;
+    private MazeCache cache;
+
+    @Setup
+    public void setup() throws IOException {
+        inputFilePath = BenchmarkMazes.path(maze);
+        //The cache is written next to a copy so the examples directory stays clean
+        Path copy = Files.createTempDirectory("maze-cache").resolve(maze + ".maz.txt");
+        Files.copy(Path.of(inputFilePath), copy);
+        cachedFilePath = copy.toString();
+        cache = new MazeCache(false);
+        new Maze(cachedFilePath, false, cache).getGrid();
+    }
+
+    @Benchmark
+    public MazeGrid mappedLoader() throws IOException {
+        return MazeLoader.load(inputFilePath, false);
+    }
+
+    @Benchmark
+    public MazeGrid mappedLoaderTiled() throws IOException {
+        return MazeLoader.load(inputFilePath, true);
+    }
+
+    @Benchmark
+    public MazeCache.CachedMaze cachedReload() throws IOException {
+        return cache.read(cachedFilePath, false);
+    }
+
+    @Benchmark
+    public char[][] bufferedReaderBaseline() throws IOException {
+        //Same two passes as the original Maze.getMazeArray()
+        int rows = 0;
+        int cols;
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
+            String line = reader.readLine();
+            cols = line.length();
+            rows = 1;
+            while (reader.readLine() != null) {
+                rows += 1;
+            }
+        }
+        char[][] mazeArray = new char[rows][cols];
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFilePath))) {
+            String line;
+            int r = 0;
+            while ((line = reader.readLine()) != null) {
+                line.getChars(0, line.length(), mazeArray[r], 0);
+                r += 1;
+            }
+        }
+        return mazeArray;
+    }
+
+}
@@ -0,0 +1,90 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*End-to-end stages of a run: load, solve (wall follower), factorize and validate.
+Parameterised over every example maze and generated mazes of growing size; the benchmark
+profile runs it with -prof gc so allocation rates are reported next to ops/s */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MazeRunnerBenchmark {
+
+    @Param({"direct", "straight", "tiny", "small", "medium", "rectangle", "regular", "large", "huge", "giant",
+            "synthetic-201", "synthetic-1001", "synthetic-3001"})
+    public String maze;
+
+    private String inputFilePath;
+    private Maze loadedMaze;
+    private MazeGrid grid;
+    private int[] entry;
+    private int[] exit;
+    private String canonicalPath;
+    private String factorizedPath;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        inputFilePath = BenchmarkMazes.path(maze);
+        loadedMaze = new Maze(inputFilePath);
+        grid = loadedMaze.getGrid();
+        entry = loadedMaze.getEntry();
+        exit = loadedMaze.getExit();
+        //solvePath() prints the paths, keep that out of the measurements
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        GeneratedPath solver = new GeneratedPath(newRunner());
+        solver.solvePath();
+        canonicalPath = solver.showPath();
+        factorizedPath = solver.factorizedPath(canonicalPath);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public MazeGrid load() {
+        return new Maze(inputFilePath).getGrid();
+    }
+
+    @Benchmark
+    public String solve() {
+        GeneratedPath solver = new GeneratedPath(newRunner());
+        solver.solvePath();
+        return solver.showPath();
+    }
+
+    @Benchmark
+    public String factorize() {
+        return new GeneratedPath(newRunner()).factorizedPath(canonicalPath);
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return new ValidatePath(newRunner()).checkPath(factorizedPath);
+    }
+
+    private Person newRunner() {
+        //The runner copies the positions, so one entry array serves every solve
+        return new Person(grid, loadedMaze.getInitialFace(), entry, entry, exit);
+    }
+
+}
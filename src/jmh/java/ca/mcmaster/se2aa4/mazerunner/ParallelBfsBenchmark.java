@@ -0,0 +1,77 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*Level-synchronous parallel BFS against the serial BFS, by fork-join pool size.
+A perfect maze keeps the frontier narrow, the braided one (with loops) lets it grow wide enough to split */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParallelBfsBenchmark {
+
+    @Param({"synthetic-3001", "braided-3001"})
+    public String maze;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Maze loadedMaze;
+    private MazeGrid grid;
+    private int[] entry;
+    private int[] exit;
+    private ForkJoinPool pool;
+    private PrintStream discard;
+
+    @Setup
+    public void setup() {
+        loadedMaze = new Maze(BenchmarkMazes.path(maze));
+        grid = loadedMaze.getGrid();
+        entry = loadedMaze.getEntry();
+        exit = loadedMaze.getExit();
+        pool = new ForkJoinPool(threads);
+        discard = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String serial() {
+        return solve(new BreadthFirstPath(newRunner()));
+    }
+
+    @Benchmark
+    public String parallel() {
+        return solve(new ParallelBreadthFirstPath(newRunner(), pool));
+    }
+
+    private String solve(AbstractPathSolver solver) {
+        solver.setOutput(discard);
+        solver.solvePath();
+        return solver.showPath();
+    }
+
+    private Person newRunner() {
+        return new Person(grid, loadedMaze.getInitialFace(), entry, entry, exit);
+    }
+
+}
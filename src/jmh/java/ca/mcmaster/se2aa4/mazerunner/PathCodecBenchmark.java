@@ -0,0 +1,92 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*Factorizing and expanding long canonical paths with PathCodec, against the character loop it replaced.
+The path mimics a wall follower: forward runs of 1 to 16 moves separated by single or double turns */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PathCodecBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int moves;
+
+    private byte[] canonicalBytes;
+    private String canonical;
+    private String factorized;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        canonicalBytes = new byte[moves];
+        int index = 0;
+        while (index < moves) {
+            int run = Math.min(random.nextInt(1, 17), moves - index);
+            for (int i = 0; i < run; i++) {
+                canonicalBytes[index++] = 'F';
+            }
+            byte turn = random.nextBoolean() ? (byte) 'L' : (byte) 'R';
+            for (int i = random.nextInt(1, 3); i > 0 && index < moves; i--) {
+                canonicalBytes[index++] = turn;
+            }
+        }
+        canonical = new String(canonicalBytes, StandardCharsets.ISO_8859_1);
+        factorized = PathCodec.encode(canonical);
+    }
+
+    @Benchmark
+    public byte[] encodeBytes() {
+        return PathCodec.encode(canonicalBytes, canonicalBytes.length);
+    }
+
+    @Benchmark
+    public String encodeString() {
+        return PathCodec.encode(canonical);
+    }
+
+    @Benchmark
+    public String decode() {
+        return PathCodec.decode(factorized);
+    }
+
+    @Benchmark
+    public String characterLoop() {
+        //The factorizer PathCodec replaced: one charAt per move into a growing StringBuilder
+        StringBuilder out = new StringBuilder();
+        char current = canonical.charAt(0);
+        int count = 1;
+        for (int i = 1; i < canonical.length(); i++) {
+            if (canonical.charAt(i) == current) {
+                count++;
+            } else {
+                if (count != 1) {
+                    out.append(count);
+                }
+                out.append(current).append(' ');
+                current = canonical.charAt(i);
+                count = 1;
+            }
+        }
+        if (count != 1) {
+            out.append(count);
+        }
+        return out.append(current).append(' ').toString();
+    }
+
+}
@@ -0,0 +1,81 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*Shortest-path solvers on the grid (bfs, astar) against the junction graph.
+graph reuses a graph built in setup (repeated solving of one maze), graphBuild measures building it */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ShortestPathBenchmark {
+
+    @Param({"huge", "giant", "synthetic-1001"})
+    public String maze;
+
+    private Maze loadedMaze;
+    private MazeGrid grid;
+    private int[] entry;
+    private int[] exit;
+    private JunctionGraph graph;
+    private PrintStream discard;
+
+    @Setup
+    public void setup() {
+        loadedMaze = new Maze(BenchmarkMazes.path(maze));
+        grid = loadedMaze.getGrid();
+        entry = loadedMaze.getEntry();
+        exit = loadedMaze.getExit();
+        discard = new PrintStream(OutputStream.nullOutputStream());
+        JunctionGraphPath solver = new JunctionGraphPath(newRunner());
+        solve(solver);
+        graph = solver.getGraph();
+    }
+
+    @Benchmark
+    public String bfs() {
+        return solve(new BreadthFirstPath(newRunner()));
+    }
+
+    @Benchmark
+    public String astar() {
+        return solve(new BidirectionalAStarPath(newRunner()));
+    }
+
+    @Benchmark
+    public String graph() {
+        return solve(new JunctionGraphPath(newRunner(), graph));
+    }
+
+    @Benchmark
+    public JunctionGraph graphBuild() {
+        int cols = grid.getCols();
+        return new JunctionGraph(grid, entry[0] * cols + entry[1], exit[0] * cols + exit[1]);
+    }
+
+    private String solve(AbstractPathSolver solver) {
+        solver.setOutput(discard);
+        solver.solvePath();
+        return solver.showPath();
+    }
+
+    private Person newRunner() {
+        //The runner copies the positions, so one entry array serves every solve
+        return new Person(grid, loadedMaze.getInitialFace(), entry, entry, exit);
+    }
+
+}
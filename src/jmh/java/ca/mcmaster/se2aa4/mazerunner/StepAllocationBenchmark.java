@@ -0,0 +1,84 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*Allocation of the wall follower's step loop, run with: -prof gc
+The recorded path reuses one buffer sized in setup, so gc.alloc.rate.norm only counts the per-solve
+objects (runner, solver and commands, the cycle check keeps one saved state): a step allocates nothing */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class StepAllocationBenchmark {
+
+    @Param({"small", "huge", "giant"})
+    public String maze;
+
+    //Read the surroundings from the grid, or from the precomputed open-direction table
+    @Param({"false", "true"})
+    public boolean precompute;
+
+    private Maze loadedMaze;
+    private MazeGrid grid;
+    private int[] entry;
+    private int[] exit;
+    private PathBuffer pathBuffer;
+    private OpenDirectionTable openDirections;
+
+    @Setup
+    public void setup() {
+        loadedMaze = new Maze("./examples/" + maze + ".maz.txt");
+        grid = loadedMaze.getGrid();
+        entry = loadedMaze.getEntry();
+        exit = loadedMaze.getExit();
+        pathBuffer = new PathBuffer();
+        openDirections = precompute ? new OpenDirectionTable(grid) : null;
+        newSolver().walk();
+    }
+
+    @Benchmark
+    public int walk() {
+        return newSolver().walk();
+    }
+
+    private SteppingPath newSolver() {
+        //The runner copies the positions, so one entry array serves every solve
+        Person runner = new Person(grid, loadedMaze.getInitialFace(), entry, entry, exit);
+        if (openDirections != null) {
+            runner.useOpenDirections(openDirections);
+        }
+        pathBuffer.clear();
+        return new SteppingPath(runner, pathBuffer);
+    }
+
+    //Wall follower that only counts steps and records into a reused path buffer
+    static class SteppingPath extends GeneratedPath {
+
+        SteppingPath(Person person, PathBuffer pathBuffer) {
+            super(person);
+            path = pathBuffer;
+        }
+
+        int walk() {
+            int count = 0;
+            while (!checkWin() && !isStopped()) {
+                doStep();
+                count++;
+            }
+            return count;
+        }
+    }
+
+}
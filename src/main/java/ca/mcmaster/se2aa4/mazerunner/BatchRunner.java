@@ -0,0 +1,208 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//Class to solve many mazes in one JVM, in parallel on a work-stealing pool
+class BatchRunner {
+    private static final Logger logger = LogManager.getLogger();
+    private static final String MAZE_SUFFIX = ".maz.txt";
+
+    private final String method;
+    private final boolean tiled;
+    private final boolean precompute;
+    private final MazeCache cache;
+    private final boolean fillDeadEnds;
+    private final ResultCache resultCache;
+    private final SolveLimits limits;
+
+    //Outcome of one maze: printed results, or the error that stopped it
+    static class BatchResult {
+        final Path file;
+        final String output;
+        final String error;
+        final long nanos;
+
+        BatchResult(Path file, String output, String error, long nanos) {
+            this.file = file;
+            this.output = output;
+            this.error = error;
+            this.nanos = nanos;
+        }
+    }
+
+    //resultCache may be null, then every maze is solved; limits apply to each maze on its own
+    public BatchRunner(String method, boolean tiled, boolean precompute, boolean useCache, boolean fillDeadEnds, ResultCache resultCache, SolveLimits limits) {
+        this.method = method;
+        this.tiled = tiled;
+        this.precompute = precompute;
+        this.cache = useCache ? new MazeCache(precompute) : null;
+        this.fillDeadEnds = fillDeadEnds;
+        this.resultCache = resultCache;
+        this.limits = limits;
+    }
+
+    /* Public method: run()
+    Description: solves every maze matched by a directory or glob, prints results in file order and a timing summary
+    Returns: void */
+    public void run(String source, String outputFile) throws IOException, InterruptedException {
+        List<Path> files = findMazes(source);
+        logger.info("Batch of {} mazes from {}", files.size(), source);
+
+        long start = System.nanoTime();
+        List<BatchResult> results = new ArrayList<>(files.size());
+        ExecutorService pool = Executors.newWorkStealingPool();
+        try (PrintStream out = outputFile == null ? null : new PrintStream(new FileOutputStream(outputFile), false)) {
+            PrintStream target = out == null ? System.out : out;
+            List<Future<BatchResult>> pending = new ArrayList<>(files.size());
+            for (Path file : files) {
+                pending.add(pool.submit(() -> solve(file)));
+            }
+            //Results are written as soon as every earlier file is done, keeping the file order
+            for (Future<BatchResult> future : pending) {
+                BatchResult result = future.get();
+                results.add(result);
+                target.println("== " + result.file + " ==");
+                if (result.error == null) {
+                    target.print(result.output);
+                } else {
+                    target.println("Error: " + result.error);
+                }
+            }
+            target.flush();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch task failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        printSummary(results, System.nanoTime() - start);
+    }
+
+    /* Private method: solve()
+    Description: runs the whole single-maze pipeline with its own Maze, Person and solver
+    Returns: BatchResult */
+    private BatchResult solve(Path file) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream output = new PrintStream(buffer, false)) {
+            Maze maze = new Maze(file.toString(), tiled, cache);
+            MazeGrid grid = maze.getGrid();
+            if (grid == null) {
+                return new BatchResult(file, null, "could not load maze", System.nanoTime() - start);
+            }
+            String resultKey = null;
+            if (resultCache != null) {
+                resultKey = ResultCache.key(grid, fillDeadEnds ? method + "+fill-dead-ends" : method);
+                ResultCache.CachedPaths cached = resultCache.get(resultKey);
+                if (cached != null) {
+                    output.println("Canonical Path: " + cached.canonical);
+                    output.println("Factorized Path: " + cached.factorized);
+                    output.flush();
+                    return new BatchResult(file, buffer.toString(), null, System.nanoTime() - start);
+                }
+            }
+            int[] entry = maze.getEntry();
+            int[] exit = maze.getExit();
+            if (entry == null || exit == null) {
+                return new BatchResult(file, null, "No path found: " + Maze.noOpening(entry, exit), System.nanoTime() - start);
+            }
+            if (fillDeadEnds) {
+                maze.fillDeadEnds(ForkJoinPool.commonPool());
+            }
+            maze.initializeFace();
+            Person runner = new Person(grid, maze.getInitialFace(), entry, entry, exit);
+            if (precompute) {
+                runner.useOpenDirections(maze.getOpenDirections());
+            }
+            AbstractPathSolver solver = Main.createSolver(method, runner);
+            solver.setOutput(output);
+            solver.setLimits(limits);
+            SolveStatus status = solver.solvePath();
+            if (status != SolveStatus.SOLVED) {
+                String reason = status.isLimit() ? status.getDescription() + " " + solver.getProgress() : status.getDescription();
+                return new BatchResult(file, null, "No path found: " + reason, System.nanoTime() - start);
+            }
+            if (resultKey != null) {
+                resultCache.put(resultKey, solver.showPath(), solver.getFactorizedPath());
+            }
+            output.flush();
+            return new BatchResult(file, buffer.toString(), null, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            logger.error("Batch maze {} failed", file, e);
+            return new BatchResult(file, null, String.valueOf(e.getMessage()), System.nanoTime() - start);
+        }
+    }
+
+    /* Private method: printSummary()
+    Description: prints per-file timings and totals on the standard output
+    Returns: void */
+    private void printSummary(List<BatchResult> results, long wallNanos) {
+        int failed = 0;
+        long busyNanos = 0;
+        StringBuilder summary = new StringBuilder();
+        for (BatchResult result : results) {
+            if (result.error != null) {
+                failed++;
+            }
+            busyNanos += result.nanos;
+            summary.append(String.format("  %-40s %10.3f ms%s%n", result.file, result.nanos / 1e6, result.error == null ? "" : "  (failed)"));
+        }
+        System.out.printf("Batch summary: %d mazes, %d solved, %d failed, %.3f ms wall, %.3f ms total%n",
+                results.size(), results.size() - failed, failed, wallNanos / 1e6, busyNanos / 1e6);
+        System.out.print(summary);
+        if (resultCache != null) {
+            System.out.printf("Result cache: %d hits, %d misses%n", resultCache.getHits(), resultCache.getMisses());
+        }
+    }
+
+    /* Static method: findMazes()
+    Description: lists the *.maz.txt files of a directory, or the files matching a glob, sorted by path
+    Returns: List<Path> */
+    static List<Path> findMazes(String source) throws IOException {
+        Path directory = Path.of(source);
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(MAZE_SUFFIX))
+                        .sorted().toList();
+            }
+        }
+        //Walk from the deepest directory that has no glob characters
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + source);
+        Path base = Path.of(".");
+        String[] segments = source.split("/");
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < segments.length - 1 && !hasGlob(segments[i]); i++) {
+            prefix.append(segments[i]).append('/');
+        }
+        if (prefix.length() > 0) {
+            base = Path.of(prefix.toString());
+        }
+        try (Stream<Path> files = Files.walk(base)) {
+            //Walking "." yields "./name", the normalized form matches globs written without it
+            return files.filter(file -> Files.isRegularFile(file) && (matcher.matches(file) || matcher.matches(file.normalize())))
+                    .sorted().toList();
+        }
+    }
+
+    private static boolean hasGlob(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('[') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+}
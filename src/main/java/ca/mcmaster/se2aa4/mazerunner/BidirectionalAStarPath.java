@@ -0,0 +1,110 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//Subclass of search path solver, runs A* from the entry and from the exit at the same time
+class BidirectionalAStarPath extends SearchPathSolver {
+    private static final Logger logger = LogManager.getLogger();
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    //One search frontier: distances, parent links and open set
+    private final class Frontier {
+        final int[] distance = new int[cellCount];
+        final int[] parent = new int[cellCount];
+        final IndexedMinHeap open = new IndexedMinHeap(cellCount);
+        final int targetRow;
+        final int targetCol;
+
+        Frontier(int source, int target) {
+            Arrays.fill(distance, UNREACHED);
+            targetRow = target / cols;
+            targetCol = target % cols;
+            distance[source] = 0;
+            parent[source] = source;
+            open.offer(source, heuristic(source));
+        }
+
+        //Manhattan distance to the other end, never overestimates on a grid
+        int heuristic(int cell) {
+            return Math.abs(cell / cols - targetRow) + Math.abs(cell % cols - targetCol);
+        }
+    }
+
+    private int bestLength;
+    private int meetingCell;
+
+    public BidirectionalAStarPath(Person person) {
+        super(person);
+    }
+
+    @Override
+    /* Protected method: findCells()
+    Description: expands the smaller frontier until no open cell can improve the best meeting point
+    Returns: int[] */
+    protected int[] findCells(int start, int end) {
+        Frontier forward = new Frontier(start, end);
+        //Each frontier allocates five arrays of cellCount ints, a cancelled solver stops between them
+        if (pollLimits(0)) {
+            return null;
+        }
+        Frontier backward = new Frontier(end, start);
+        bestLength = start == end ? 0 : UNREACHED;
+        meetingCell = start;
+
+        while (!forward.open.isEmpty() && !backward.open.isEmpty()) {
+            if (pollLimits(nodesExpanded)) {
+                return null;
+            }
+            //Every cheaper path goes through an open cell whose key is below bestLength
+            if (Math.max(forward.open.peekKey(), backward.open.peekKey()) >= bestLength) {
+                break;
+            }
+            if (forward.open.size() <= backward.open.size()) {
+                expand(forward, backward);
+            } else {
+                expand(backward, forward);
+            }
+        }
+        logger.info("Bidirectional A* expanded {} cells", nodesExpanded);
+        if (bestLength == UNREACHED) {
+            return null;
+        }
+
+        //Forward half from the entry to the meeting cell, then backward half to the exit
+        int[] head = tracePath(forward.parent, start, meetingCell);
+        int[] cells = Arrays.copyOf(head, bestLength + 1);
+        int index = head.length;
+        for (int cell = meetingCell; cell != end; ) {
+            cell = backward.parent[cell];
+            cells[index++] = cell;
+        }
+        return cells;
+    }
+
+    /* Private method: expand()
+    Description: takes the best open cell of one frontier and relaxes its neighbours
+    Returns: void */
+    private void expand(Frontier side, Frontier other) {
+        int cell = side.open.poll();
+        nodesExpanded++;
+        int nextDistance = side.distance[cell] + 1;
+        for (int direction = 0; direction < 4; direction++) {
+            int next = neighbour(cell, direction);
+            if (next < 0 || nextDistance >= side.distance[next]) {
+                continue;
+            }
+            side.distance[next] = nextDistance;
+            side.parent[next] = cell;
+            side.open.offer(next, nextDistance + side.heuristic(next));
+            //Both searches have reached this cell, keep the shortest meeting point
+            if (other.distance[next] != UNREACHED && nextDistance + other.distance[next] < bestLength) {
+                bestLength = nextDistance + other.distance[next];
+                meetingCell = next;
+            }
+        }
+    }
+
+}
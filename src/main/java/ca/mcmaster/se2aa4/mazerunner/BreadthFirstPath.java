@@ -0,0 +1,50 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//Subclass of search path solver, finds a shortest path with a breadth-first search
+class BreadthFirstPath extends SearchPathSolver {
+    private static final Logger logger = LogManager.getLogger();
+
+    public BreadthFirstPath(Person person) {
+        super(person);
+    }
+
+    @Override
+    /* Protected method: findCells()
+    Description: breadth-first search over the grid with an int[] queue and an int[] parent array
+    Returns: int[] */
+    protected int[] findCells(int start, int end) {
+        int[] parent = new int[cellCount];
+        Arrays.fill(parent, -1);
+        int[] queue = new int[cellCount];
+        int head = 0;
+        int tail = 0;
+
+        //The start cell is its own parent so it is never queued twice
+        parent[start] = start;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (pollLimits(nodesExpanded++)) {
+                return null;
+            }
+            if (cell == end) {
+                logger.info("BFS expanded {} cells", nodesExpanded);
+                return tracePath(parent, start, end);
+            }
+            for (int direction = 0; direction < 4; direction++) {
+                int next = neighbour(cell, direction);
+                if (next >= 0 && parent[next] < 0) {
+                    parent[next] = cell;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+
+}
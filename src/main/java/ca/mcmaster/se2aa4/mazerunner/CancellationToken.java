@@ -0,0 +1,17 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Flag another thread raises to ask a running solver to give up, solvers poll it between steps
+class CancellationToken {
+    private volatile boolean cancelled;
+
+    /* Public method: cancel()
+    Description: asks every solver holding this token to stop at its next check
+    Returns: void */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,117 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Dead-end filling: walls up every passage with at most one open neighbour, then follows the corridor
+behind it until a junction, leaving only cells that lie on a route between entry and exit (and loops).
+Row bands are scanned in parallel on a fork-join pool. A chain may run into other bands, so cells are
+read with volatile reads and filled with an atomic bit set: a cell is filled by exactly one task and,
+since filling only removes neighbours, a cell seen as a dead end stays one */
+class DeadEndFiller {
+    private static final Logger logger = LogManager.getLogger();
+    //Smallest band handed to one task
+    private static final int MIN_BAND_ROWS = 16;
+    private static final int[] ROW_STEP = {-1, 0, 1, 0};
+    private static final int[] COL_STEP = {0, 1, 0, -1};
+
+    private final MazeGrid grid;
+    private final int[] entry;
+    private final int[] exit;
+    private final LongAdder filled = new LongAdder();
+
+    public DeadEndFiller(MazeGrid grid, int[] entry, int[] exit) {
+        this.grid = grid;
+        this.entry = entry;
+        this.exit = exit;
+    }
+
+    /* Public method: fill()
+    Description: fills every dead end of the grid in place
+    Returns: long (number of cells filled) */
+    public long fill(ForkJoinPool pool) {
+        int rows = grid.getRows();
+        //A few bands per worker so stolen work stays balanced
+        int bandRows = Math.max(MIN_BAND_ROWS, rows / (pool.getParallelism() * 4));
+        pool.invoke(new Band(0, rows, bandRows));
+        logger.info("Dead-end filling closed {} cells", filled.sum());
+        return filled.sum();
+    }
+
+    //Rows from (inclusive) to (exclusive), split in halves until they are small enough
+    @SuppressWarnings("serial") //never serialized, RecursiveAction is only Serializable by inheritance
+    private final class Band extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int bandRows;
+
+        Band(int from, int to, int bandRows) {
+            this.from = from;
+            this.to = to;
+            this.bandRows = bandRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= bandRows) {
+                scan(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Band(from, middle, bandRows), new Band(middle, to, bandRows));
+        }
+    }
+
+    /* Private method: scan()
+    Description: starts a chain at every dead end of a band of rows
+    Returns: void */
+    private void scan(int from, int to) {
+        int cols = grid.getCols();
+        for (int row = from; row < to; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (!grid.isWallVolatile(row, col)) {
+                    fillChain(row, col);
+                }
+            }
+        }
+    }
+
+    /* Private method: fillChain()
+    Description: fills a dead end, then its only neighbour while that one has become a dead end too
+    Returns: void */
+    private void fillChain(int row, int col) {
+        while (!isEndpoint(row, col)) {
+            int open = 0;
+            int nextRow = -1;
+            int nextCol = -1;
+            for (int direction = 0; direction < 4 && open < 2; direction++) {
+                int r = row + ROW_STEP[direction];
+                int c = col + COL_STEP[direction];
+                if (!grid.isWallVolatile(r, c)) {
+                    open++;
+                    nextRow = r;
+                    nextCol = c;
+                }
+            }
+            //Junction or corridor, or another task filled the cell first
+            if (open > 1 || !grid.claimWall(row, col)) {
+                return;
+            }
+            filled.increment();
+            if (open == 0) {
+                return;
+            }
+            row = nextRow;
+            col = nextCol;
+        }
+    }
+
+    private boolean isEndpoint(int row, int col) {
+        return (row == entry[0] && col == entry[1]) || (row == exit[0] && col == exit[1]);
+    }
+
+}
@@ -0,0 +1,119 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Arrays;
+
+//Binary min-heap of int items (cell ids) with int keys, indexed so a key can be decreased in place
+class IndexedMinHeap {
+    private static final int ABSENT = -1;
+    private static final int REMOVED = -2;
+
+    private final int[] items;
+    private final int[] keys;
+    //Heap slot of every item, ABSENT before it is added and REMOVED once it is polled
+    private final int[] slots;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.items = new int[capacity];
+        this.keys = new int[capacity];
+        this.slots = new int[capacity];
+        Arrays.fill(slots, ABSENT);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /* Public method: peekKey()
+    Description: gets the smallest key without removing its item
+    Returns: int */
+    public int peekKey() {
+        return keys[0];
+    }
+
+    /* Public method: offer()
+    Description: adds an item, or lowers its key if it is already in the heap with a larger one
+    Returns: void */
+    public void offer(int item, int key) {
+        int slot = slots[item];
+        if (slot == REMOVED) {
+            return;
+        }
+        if (slot == ABSENT) {
+            slot = size++;
+            items[slot] = item;
+            keys[slot] = key;
+            slots[item] = slot;
+        } else if (key < keys[slot]) {
+            keys[slot] = key;
+        } else {
+            return;
+        }
+        siftUp(slot);
+    }
+
+    /* Public method: poll()
+    Description: removes the item with the smallest key
+    Returns: int */
+    public int poll() {
+        int top = items[0];
+        slots[top] = REMOVED;
+        size--;
+        if (size > 0) {
+            items[0] = items[size];
+            keys[0] = keys[size];
+            slots[items[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int item = items[slot];
+        int key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(item, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        int item = items[slot];
+        int key = keys[slot];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(item, key, slot);
+    }
+
+    private void move(int from, int to) {
+        items[to] = items[from];
+        keys[to] = keys[from];
+        slots[items[to]] = to;
+    }
+
+    private void place(int item, int key, int slot) {
+        items[slot] = item;
+        keys[slot] = key;
+        slots[item] = slot;
+    }
+
+}
@@ -0,0 +1,172 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Corridor-compressed view of a maze: junctions, dead ends, entry and exit become nodes, and every corridor
+between two of them becomes one weighted edge. Edges are stored in CSR arrays (the edges of node n are
+edgeStart[n] to edgeStart[n + 1] - 1) and keep the direction of each step so the cells can be rebuilt */
+class JunctionGraph {
+    private static final Logger logger = LogManager.getLogger();
+
+    private final int cols;
+    private final int[] cellDelta;
+    //Node id of every cell, -1 for walls and corridor cells
+    private final int[] nodeOf;
+    private final int[] nodeCell;
+    private final int nodeCount;
+
+    private final int[] edgeStart;
+    private final int[] edgeTarget;
+    private final int[] edgeWeight;
+    //Offset of the edge's steps in steps[], each step is a direction (0 = N, 1 = E, 2 = S, 3 = W)
+    private final int[] edgeSteps;
+    private final byte[] steps;
+
+    public JunctionGraph(MazeGrid grid, int entry, int exit) {
+        this(grid, entry, exit, () -> false);
+    }
+
+    //Constructor polling stopped once per row and every 1024 nodes, it throws CancellationException when stopped returns true
+    public JunctionGraph(MazeGrid grid, int entry, int exit, BooleanSupplier stopped) {
+        this.cols = grid.getCols();
+        this.cellDelta = new int[] {-cols, 1, cols, -1};
+        OpenDirectionTable openDirections = new OpenDirectionTable(grid);
+        int rows = grid.getRows();
+        int cells = Math.toIntExact((long) rows * cols);
+
+        //First pass: every open cell that is not a plain corridor cell is a node
+        nodeOf = new int[cells];
+        Arrays.fill(nodeOf, -1);
+        int count = 0;
+        int openCells = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            if (cell % cols == 0 && stopped.getAsBoolean()) {
+                throw new CancellationException("Junction graph build stopped");
+            }
+            if (grid.isWall(cell / cols, cell % cols)) {
+                continue;
+            }
+            openCells++;
+            if (Integer.bitCount(openDirections.mask(cell / cols, cell % cols)) != 2 || cell == entry || cell == exit) {
+                nodeOf[cell] = count++;
+            }
+        }
+        nodeCount = count;
+        nodeCell = new int[nodeCount];
+        for (int cell = 0; cell < cells; cell++) {
+            if (nodeOf[cell] >= 0) {
+                nodeCell[nodeOf[cell]] = cell;
+            }
+        }
+
+        //Second pass: walk every corridor leaving a node, edges are appended in node order (CSR)
+        edgeStart = new int[nodeCount + 1];
+        int[] targets = new int[Math.max(16, nodeCount * 2)];
+        int[] weights = new int[targets.length];
+        int[] offsets = new int[targets.length];
+        byte[] walked = new byte[Math.max(16, cells)];
+        int edges = 0;
+        int stepCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if ((node & 1023) == 0 && stopped.getAsBoolean()) {
+                throw new CancellationException("Junction graph build stopped");
+            }
+            edgeStart[node] = edges;
+            int origin = nodeCell[node];
+            int open = openDirections.mask(origin / cols, origin % cols);
+            for (int direction = 0; direction < 4; direction++) {
+                if ((open & (1 << direction)) == 0) {
+                    continue;
+                }
+                if (edges == targets.length) {
+                    targets = Arrays.copyOf(targets, edges * 2);
+                    weights = Arrays.copyOf(weights, edges * 2);
+                    offsets = Arrays.copyOf(offsets, edges * 2);
+                }
+                offsets[edges] = stepCount;
+                int cell = origin;
+                int heading = direction;
+                int length = 0;
+                while (true) {
+                    if (stepCount == walked.length) {
+                        walked = Arrays.copyOf(walked, stepCount * 2);
+                    }
+                    walked[stepCount++] = (byte) heading;
+                    cell += cellDelta[heading];
+                    length++;
+                    if (nodeOf[cell] >= 0) {
+                        break;
+                    }
+                    //Corridor cell: leave by the open side that is not the one we came in from
+                    int exits = openDirections.mask(cell / cols, cell % cols) & ~(1 << ((heading + 2) & 3));
+                    heading = Integer.numberOfTrailingZeros(exits);
+                }
+                targets[edges] = nodeOf[cell];
+                weights[edges] = length;
+                edges++;
+            }
+        }
+        edgeStart[nodeCount] = edges;
+        edgeTarget = Arrays.copyOf(targets, edges);
+        edgeWeight = Arrays.copyOf(weights, edges);
+        edgeSteps = Arrays.copyOf(offsets, edges);
+        steps = Arrays.copyOf(walked, stepCount);
+        logger.info("Junction graph: {} open cells compressed to {} nodes and {} edges", openCells, nodeCount, edges);
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeTarget.length;
+    }
+
+    /* Public method: nodeOf()
+    Description: gets the node id of a cell
+    Returns: int (-1 when the cell is a wall or inside a corridor) */
+    public int nodeOf(int cell) {
+        return nodeOf[cell];
+    }
+
+    /* Public method: cellOf()
+    Description: gets the cell id of a node
+    Returns: int */
+    public int cellOf(int node) {
+        return nodeCell[node];
+    }
+
+    /* Public method: firstEdge()
+    Description: gets the first edge leaving a node, the edges of a node run up to firstEdge(node + 1)
+    Returns: int */
+    public int firstEdge(int node) {
+        return edgeStart[node];
+    }
+
+    public int target(int edge) {
+        return edgeTarget[edge];
+    }
+
+    public int weight(int edge) {
+        return edgeWeight[edge];
+    }
+
+    /* Public method: appendCells()
+    Description: writes the cells reached by every step of an edge leaving a node, starting after the node's cell
+    Returns: int (the index after the last cell written) */
+    public int appendCells(int node, int edge, int[] cells, int index) {
+        int cell = nodeCell[node];
+        int offset = edgeSteps[edge];
+        for (int i = 0; i < edgeWeight[edge]; i++) {
+            cell += cellDelta[steps[offset + i]];
+            cells[index++] = cell;
+        }
+        return index;
+    }
+
+}
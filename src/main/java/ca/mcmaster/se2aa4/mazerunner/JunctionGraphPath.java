@@ -0,0 +1,100 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//Subclass of search path solver, runs Dijkstra on the corridor-compressed junction graph instead of the grid
+class JunctionGraphPath extends SearchPathSolver {
+    private static final Logger logger = LogManager.getLogger();
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private JunctionGraph graph;
+
+    public JunctionGraphPath(Person person) {
+        this(person, null);
+    }
+
+    //A graph built once for a maze can be shared by every solve of that maze
+    public JunctionGraphPath(Person person, JunctionGraph graph) {
+        super(person);
+        this.graph = graph;
+    }
+
+    /* Public method: getGraph()
+    Description: gets the junction graph used by the last solve
+    Returns: JunctionGraph */
+    public JunctionGraph getGraph() {
+        return graph;
+    }
+
+    @Override
+    /* Protected method: findCells()
+    Description: shortest path between the entry and exit nodes, corridors are expanded back to cells at the end
+    Returns: int[] */
+    protected int[] findCells(int start, int end) {
+        if (graph == null || graph.nodeOf(start) < 0 || graph.nodeOf(end) < 0) {
+            try {
+                graph = new JunctionGraph(grid, start, end, () -> pollLimits(0));
+            } catch (CancellationException e) {
+                return null;
+            }
+        }
+        int nodes = graph.getNodeCount();
+        int source = graph.nodeOf(start);
+        int target = graph.nodeOf(end);
+        int[] distance = new int[nodes];
+        Arrays.fill(distance, UNREACHED);
+        //Edge used to reach every node, the source node is reached by none
+        int[] parentEdge = new int[nodes];
+        int[] parentNode = new int[nodes];
+        IndexedMinHeap open = new IndexedMinHeap(nodes);
+
+        distance[source] = 0;
+        parentEdge[source] = -1;
+        open.offer(source, 0);
+        while (!open.isEmpty()) {
+            int node = open.poll();
+            if (pollLimits(nodesExpanded++)) {
+                return null;
+            }
+            if (node == target) {
+                break;
+            }
+            for (int edge = graph.firstEdge(node); edge < graph.firstEdge(node + 1); edge++) {
+                int next = graph.target(edge);
+                int length = distance[node] + graph.weight(edge);
+                if (length < distance[next]) {
+                    distance[next] = length;
+                    parentEdge[next] = edge;
+                    parentNode[next] = node;
+                    open.offer(next, length);
+                }
+            }
+        }
+        logger.info("Junction graph search expanded {} nodes", nodesExpanded);
+        if (distance[target] == UNREACHED) {
+            return null;
+        }
+
+        //Collect the edges from the exit back to the entry, then replay them forwards
+        int edgeCount = 0;
+        for (int node = target; node != source; node = parentNode[node]) {
+            edgeCount++;
+        }
+        int[] route = new int[edgeCount];
+        for (int node = target, i = edgeCount - 1; node != source; node = parentNode[node], i--) {
+            route[i] = node;
+        }
+        int[] cells = new int[distance[target] + 1];
+        cells[0] = start;
+        int index = 1;
+        for (int node : route) {
+            index = graph.appendCells(parentNode[node], parentEdge[node], cells, index);
+        }
+        return cells;
+    }
+
+}
@@ -1,8 +1,19 @@
 package ca.mcmaster.se2aa4.mazerunner;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -10,14 +21,17 @@ import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.Configurator;
 
 
 
 public class Main {
 
     private static final Logger logger = LogManager.getLogger();
+    private static final int DEFAULT_RESULT_CACHE_SIZE = 256;
 
     public static void main(String[] args) {
         logger.info("** Starting Maze Runner");
@@ -26,6 +40,22 @@ public class Main {
         Options options = new Options();
         options.addOption("i", "input", true, "Input file that contains the maze");
         options.addOption("p", "path", true, "Given path that needs to be validated");
+        options.addOption(null, "path-file", true, "File holding the path to validate, - for the standard input");
+        options.addOption("l", "layout", true, "Grid layout used in memory: row-major (default) or tiled");
+        options.addOption(null, "trace", false, "Log every step of the runner");
+        options.addOption("m", "method", true, "Path computation method: righthand (default), bfs, parallel-bfs, astar, graph or race (all of them at once, first path wins)");
+        options.addOption(null, "precompute", false, "Precompute the open directions of every cell before solving");
+        options.addOption(null, "maze-cache", false, "Reload the maze from a binary copy kept next to it (<file>.cache), saving it on first use");
+        options.addOption(null, "result-cache", true, "Directory of solved paths reused for mazes already solved with the same method");
+        options.addOption(null, "result-cache-size", true, "Most solved paths kept by the result cache (default " + DEFAULT_RESULT_CACHE_SIZE + ")");
+        options.addOption(null, "fill-dead-ends", false, "Fill every dead end (in parallel) before solving");
+        options.addOption(null, "metrics", false, "Print the solver metrics (moves, cells visited, phase timings) as JSON on the standard error");
+        options.addOption(null, "max-steps", true, "Stop solving after this many steps and print the partial path");
+        options.addOption(null, "timeout", true, "Stop solving after this many milliseconds and print the partial path");
+        options.addOption(null, "serve", true, "Serve solve and validate requests on a local socket: [host:]port or unix:<socket file>");
+        options.addOption("b", "batch", true, "Solve every maze of a directory or glob in parallel");
+        options.addOption(null, "stream", false, "Write the factorized path while solving, without keeping the path in memory (no canonical path)");
+        options.addOption("o", "output", true, "File receiving the batch results (or the --stream path) instead of the standard output");
         //Create CL Parser, formatter objects to parse arguments
         CommandLineParser parser = new DefaultParser();
         HelpFormatter formatter = new HelpFormatter();
@@ -40,6 +70,25 @@ public class Main {
             //Parse command line argument and option
             cmd = parser.parse(options, args);
 
+            //Step by step logging is only turned on on demand
+            if (cmd.hasOption("trace")) {
+                Configurator.setRootLevel(Level.TRACE);
+            }
+
+            //Server mode keeps the JVM warm and takes mazes from its clients
+            if (cmd.hasOption("serve")) {
+                MazeServer server = new MazeServer("tiled".equals(cmd.getOptionValue("layout")), cmd.hasOption("precompute"), solveLimits(cmd));
+                server.serve(cmd.getOptionValue("serve"));
+                return;
+            }
+
+            //Batch mode replaces the single -i maze
+            if (cmd.hasOption("batch")) {
+                BatchRunner batch = new BatchRunner(cmd.getOptionValue("method", "righthand"), "tiled".equals(cmd.getOptionValue("layout")), cmd.hasOption("precompute"), cmd.hasOption("maze-cache"), cmd.hasOption("fill-dead-ends"), openResultCache(cmd), solveLimits(cmd));
+                batch.run(cmd.getOptionValue("batch"), cmd.getOptionValue("output"));
+                return;
+            }
+
             //If there is no input file given with the -i flag, throw error
             if (!cmd.hasOption("i")) {
                 logger.error("/!\\ Missing required option: -i <input file> /!\\");
@@ -50,6 +99,9 @@ public class Main {
                     pathSequence = cmd.getOptionValue("p");
                     flag = 'p';    
                 }
+                else if (cmd.hasOption("path-file")) {
+                    flag = 'f';
+                }
                 else {
                     flag = 'i';
                 }
@@ -60,32 +112,69 @@ public class Main {
             String inputFilePath = cmd.getOptionValue("i");
 
             // Create Maze object and load the maze
-            Maze maze = new Maze(inputFilePath);
-            char[][] mazeArray = maze.getMazeArray();
+            MazeCache cache = cmd.hasOption("maze-cache") ? new MazeCache(cmd.hasOption("precompute")) : null;
+            Maze maze = new Maze(inputFilePath, "tiled".equals(cmd.getOptionValue("layout")), cache);
+            MazeGrid grid = maze.getGrid();
+            if (grid == null) {
+                logger.error("/!\\ Could not load maze {} /!\\", inputFilePath);
+                return;
+            }
 
             // Display the maze
-            logger.info("Maze Loaded:");
-            for (char[] row : mazeArray) {
-                logger.info(new String(row));
-            }
+            logMaze(maze, grid);
 
             // Get entry and exit points
             int[] entry = maze.getEntry();
             int[] exit = maze.getExit();
-            logger.info("Entry Point: (" + entry[0] + ", " + entry[1] + ")");
-            logger.info("Exit Point: (" + exit[0] + ", " + exit[1] + ")");
+            //Without an opening on both sides there is no path to find or to check
+            if (entry == null || exit == null) {
+                System.out.println(flag == 'i' ? "No path found: " + Maze.noOpening(entry, exit) : "Invalid path!");
+                return;
+            }
+            logger.info("Entry Point: ({}, {})", entry[0], entry[1]);
+            logger.info("Exit Point: ({}, {})", exit[0], exit[1]);
 
             
+            //A maze already solved with this method is answered from the result cache
+            String method = cmd.getOptionValue("method", "righthand");
+            boolean fillDeadEnds = flag == 'i' && cmd.hasOption("fill-dead-ends");
+            ResultCache resultCache = openResultCache(cmd);
+            String resultKey = null;
+            if (flag == 'i' && resultCache != null) {
+                //Filling changes the path the wall follower takes, so it is part of the key
+                resultKey = ResultCache.key(grid, fillDeadEnds ? method + "+fill-dead-ends" : method);
+                ResultCache.CachedPaths cached = resultCache.get(resultKey);
+                if (cached != null) {
+                    //Streaming only ever writes the factorized path, to the output file when there is one
+                    String streamFile = cmd.getOptionValue("output");
+                    if (!cmd.hasOption("stream")) {
+                        System.out.println("Canonical Path: " + cached.canonical);
+                        System.out.println("Factorized Path: " + cached.factorized);
+                    } else if (streamFile == null) {
+                        System.out.println("Factorized Path: " + cached.factorized);
+                    } else {
+                        Files.writeString(Path.of(streamFile), "Factorized Path: " + cached.factorized + "\n", StandardCharsets.US_ASCII);
+                    }
+                    reportResultCache(resultCache);
+                    return;
+                }
+            }
+
+            //Only solving uses the filled grid, a given path is checked against the real maze
+            if (fillDeadEnds) {
+                maze.fillDeadEnds(ForkJoinPool.commonPool());
+            }
+
             // Initialize runner at entry point
             char initialFace = maze.getInitialFace();
             maze.initializeFace(); // Set the runner at the entry
             // Display the maze
-            logger.info("Maze Loaded:");
-            for (char[] row : mazeArray) {
-                logger.info(new String(row));
-            }
+            logMaze(maze, grid);
             //Initialize person and path
-            Person runner = new Person(mazeArray, initialFace, entry, entry, exit);
+            Person runner = new Person(grid, initialFace, entry, entry, exit);
+            if (cmd.hasOption("precompute")) {
+                runner.useOpenDirections(maze.getOpenDirections());
+            }
             //Path class commented out as it is not used in this assignment
             //Path path = new Path(runner);
 
@@ -95,10 +184,19 @@ public class Main {
 
 
             //If there is a path validation flag,  check for valid path
-            if (flag == 'p') {
+            if (flag == 'p' || flag == 'f') {
                 pathSolver = new ValidatePath(runner);
                 
-                checkPathWin = ((ValidatePath) pathSolver).checkPath(pathSequence);
+                ValidationResult validation;
+                if (flag == 'p') {
+                    validation = ((ValidatePath) pathSolver).validate(pathSequence);
+                } else { //Stream the path instead of holding it in memory
+                    try (Reader pathReader = openPathFile(cmd.getOptionValue("path-file"))) {
+                        validation = ((ValidatePath) pathSolver).validate(pathReader);
+                    }
+                }
+                logger.info("Validation result: {}", validation);
+                checkPathWin = validation.isValid();
                 if (checkPathWin == true) {
                     System.out.println("Valid path!");
                 } else {
@@ -109,8 +207,47 @@ public class Main {
             else {
                 // Simulate maze traversal
                 logger.info("\n--- Simulating Maze Traversal ---");
-                pathSolver = new GeneratedPath(runner);
-                pathSolver.solvePath();
+                pathSolver = createSolver(method, runner);
+                pathSolver.setLimits(solveLimits(cmd));
+                if (cmd.hasOption("metrics")) {
+                    pathSolver.enableMetrics();
+                }
+                //Streaming writes the factorized path while the runner walks, the path is never held in memory
+                boolean streaming = cmd.hasOption("stream");
+                String streamFile = cmd.getOptionValue("output");
+                WritableByteChannel stream = null;
+                if (streaming) {
+                    stream = streamFile == null ? Channels.newChannel(System.out)
+                            : FileChannel.open(Path.of(streamFile), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                    pathSolver.setMoveSink(new RunLengthWriter(stream, "Factorized Path: "));
+                }
+                SolveStatus status;
+                try {
+                    status = pathSolver.solvePath();
+                } finally {
+                    //The standard output stays open for the lines below
+                    if (stream != null && streamFile != null) {
+                        stream.close();
+                    }
+                }
+                if (status.isLimit()) {
+                    //Stopped early, what was walked so far is still worth showing (a stream already holds it, marked partial)
+                    System.out.println("No path found: " + status.getDescription() + " " + pathSolver.getProgress());
+                    if (!streaming) {
+                        System.out.println("Partial Path: " + pathSolver.factorizedPath(pathSolver.getPath()));
+                    }
+                } else if (status != SolveStatus.SOLVED) {
+                    System.out.println("No path found: " + status.getDescription());
+                } else if (resultKey != null && !streaming) {
+                    resultCache.put(resultKey, pathSolver.showPath(), pathSolver.getFactorizedPath());
+                    reportResultCache(resultCache);
+                }
+                //On the standard error so the paths stay alone on the standard output
+                SolverMetrics metrics = pathSolver.getMetrics();
+                if (metrics != null && cmd.hasOption("metrics")) {
+                    metrics.setMazeTimings(maze.getLoadNanos(), maze.getEntryExitNanos());
+                    System.err.println(metrics.toJson());
+                }
                 
             }
 
@@ -127,6 +264,81 @@ public class Main {
         }
 
     }
+
+    /* Private static method: logMaze()
+    Description: logs every row of the maze, rows are only rendered when INFO is enabled
+    Returns: void */
+    private static void logMaze(Maze maze, MazeGrid grid) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        logger.info("Maze Loaded:");
+        for (int row = 0; row < grid.getRows(); row++) {
+            logger.info(maze.renderRow(row));
+        }
+    }
+
+    /* Private static method: openPathFile()
+    Description: opens the path file given with --path-file, - reads the standard input
+    Returns: Reader */
+    private static Reader openPathFile(String pathFile) throws IOException {
+        if ("-".equals(pathFile)) {
+            return new InputStreamReader(System.in, StandardCharsets.US_ASCII);
+        }
+        return new InputStreamReader(Files.newInputStream(Path.of(pathFile)), StandardCharsets.US_ASCII);
+    }
+
+    /* Static method: openResultCache()
+    Description: creates the result cache asked for with --result-cache
+    Returns: ResultCache (null when it is not used) */
+    static ResultCache openResultCache(CommandLine cmd) throws IOException {
+        if (!cmd.hasOption("result-cache")) {
+            return null;
+        }
+        int size = Integer.parseInt(cmd.getOptionValue("result-cache-size", String.valueOf(DEFAULT_RESULT_CACHE_SIZE)));
+        return new ResultCache(Path.of(cmd.getOptionValue("result-cache")), size);
+    }
+
+    /* Static method: solveLimits()
+    Description: creates the solver limits asked for with --max-steps and --timeout
+    Returns: SolveLimits */
+    static SolveLimits solveLimits(CommandLine cmd) {
+        if (!cmd.hasOption("max-steps") && !cmd.hasOption("timeout")) {
+            return SolveLimits.NONE;
+        }
+        long maxSteps = cmd.hasOption("max-steps") ? Long.parseLong(cmd.getOptionValue("max-steps")) : Long.MAX_VALUE;
+        Duration timeout = cmd.hasOption("timeout") ? Duration.ofMillis(Long.parseLong(cmd.getOptionValue("timeout"))) : null;
+        return new SolveLimits(maxSteps, timeout, null);
+    }
+
+    /* Static method: reportResultCache()
+    Description: prints the hit and miss counts on the standard error, leaving the paths alone on the standard output
+    Returns: void */
+    static void reportResultCache(ResultCache resultCache) {
+        System.err.printf("Result cache: %d hits, %d misses%n", resultCache.getHits(), resultCache.getMisses());
+    }
+
+    /* Static method: createSolver()
+    Description: creates the path solver for the method chosen with -m
+    Returns: AbstractPathSolver */
+    static AbstractPathSolver createSolver(String method, Person runner) {
+        switch (method) {
+            case "righthand":
+                return new GeneratedPath(runner);
+            case "bfs":
+                return new BreadthFirstPath(runner);
+            case "parallel-bfs":
+                return new ParallelBreadthFirstPath(runner);
+            case "astar":
+                return new BidirectionalAStarPath(runner);
+            case "graph":
+                return new JunctionGraphPath(runner);
+            case "race":
+                return new RacePathSolver(runner);
+            default:
+                throw new IllegalArgumentException("Unknown path computation method: " + method);
+        }
+    }
 }
 
 
@@ -137,103 +349,214 @@ class Maze {
     private int rows;
     private int cols;
     private final String inputFilePath;
-    private char[][] mazeArray;
+    private final boolean tiled;
+    private final MazeCache cache;
+    private MazeGrid grid;
+    //Entry and exit read from the binary cache or found by the first border scan (null when there is no opening)
+    private int[] cachedEntry;
+    private int[] cachedExit;
+    private boolean entryKnown;
+    private boolean exitKnown;
+    //Masks read from the binary cache, null when the maze was parsed
+    private OpenDirectionTable openDirections;
+    private int[] runnerCell;
+    //Phase timings, read by the solver metrics
+    private long loadNanos;
+    private long entryExitNanos;
     private final char initialFace = 'E'; //When maze is initialized, the current facing is always East
     private final char runner = 'X';
     //Define maze constructor
     public Maze(String inputFilePath) {
+        this(inputFilePath, false);
+    }
+
+    //Constructor choosing between the row-major and the tiled grid layout
+    public Maze(String inputFilePath, boolean tiled) {
+        this(inputFilePath, tiled, null);
+    }
+
+    //Constructor for a maze already in memory (e.g. sent inline to the server), getGrid() returns it
+    public Maze(MazeGrid grid) {
+        this.inputFilePath = null;
+        this.tiled = grid.isTiled();
+        this.cache = null;
+        this.grid = grid;
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+    }
+
+    //Constructor reloading the maze from its binary cache when there is one (cache may be null)
+    public Maze(String inputFilePath, boolean tiled, MazeCache cache) {
         this.inputFilePath = inputFilePath;
+        this.tiled = tiled;
+        this.cache = cache;
 
     }
 
     //Maze Methds
-    /* Public method: getMazeArray()
-    Description: creates 2D array for maze
-    Returns: char[][] */
-    public char[][] getMazeArray() {
+    /* Public method: getGrid()
+    Description: loads the maze into a bitset grid (1 bit per cell)
+    Returns: MazeGrid */
+    public MazeGrid getGrid() {
+        if (inputFilePath == null) {
+            return grid;
+        }
+        long start = System.nanoTime();
+        long scanStart = entryExitNanos;
         try {
-            //Read maze file to store number of rows and columns
-            BufferedReader reader = new BufferedReader(new FileReader(inputFilePath));
-            String line = reader.readLine();
-            cols = line.length();
-            rows = 1;
-            while ((line = reader.readLine()) != null) {
-                rows+=1;
-            }
-            //Close buffered reader
-            reader.close();
-
-            //Create string array for maze
-            mazeArray = new char[rows][cols];
-
-            //Open new buffered reader to create array for maze
-            BufferedReader newReader = new BufferedReader(new FileReader(inputFilePath));
-            String newLine;
-            int r = 0;
-            while ((newLine = newReader.readLine()) != null) {
-                for (int idx = 0; idx < newLine.length(); idx++) {
-                    mazeArray[r][idx] = newLine.charAt(idx);
-                    // Replace null character with space
-                    if (mazeArray[r][idx] == '\0') {
-                        mazeArray[r][idx] = '\32';
-                    }
-
-                    
-                }
-                logger.info(System.lineSeparator());
-                r+=1;
+            if (cache != null) {
+                return getCachedGrid();
             }
+            //Read the maze file once and store number of rows and columns
+            grid = MazeLoader.load(inputFilePath, tiled);
+            rows = grid.getRows();
+            cols = grid.getCols();
 
-            newReader.close();
-
-            return mazeArray;
+            return grid;
             
         } catch (Exception e) {
             logger.info("Unexpected error occured: " + e);
+        } finally {
+            //The border scan done before saving a cache is an entry/exit phase, not part of the load
+            loadNanos += System.nanoTime() - start - (entryExitNanos - scanStart);
         }
 
         return null;
     }
 
+    /* Public method: getLoadNanos()
+    Description: gets the time spent loading the maze (parsing or reading the cache)
+    Returns: long */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /* Public method: getEntryExitNanos()
+    Description: gets the time spent finding the entry and exit on the borders
+    Returns: long */
+    public long getEntryExitNanos() {
+        return entryExitNanos;
+    }
+
+
+    /* Private method: getCachedGrid()
+    Description: maps the binary cache, or parses the maze file and saves the cache for the next run
+    Returns: MazeGrid */
+    private MazeGrid getCachedGrid() throws IOException {
+        MazeCache.CachedMaze cached = cache.read(inputFilePath, tiled);
+        if (cached != null) {
+            grid = cached.grid;
+            rows = grid.getRows();
+            cols = grid.getCols();
+            cachedEntry = cached.entry;
+            cachedExit = cached.exit;
+            entryKnown = true;
+            exitKnown = true;
+            openDirections = cached.openDirections;
+            return grid;
+        }
+        grid = MazeLoader.load(inputFilePath, tiled);
+        rows = grid.getRows();
+        cols = grid.getCols();
+        if (cache.storesIndexes()) {
+            openDirections = new OpenDirectionTable(grid);
+        }
+        int[] entry = getEntry();
+        int[] exit = getExit();
+        if (entry == null || exit == null) {
+            //Nothing to solve, a closed maze is not worth caching
+            return grid;
+        }
+        try {
+            cache.write(inputFilePath, grid, entry, exit, openDirections);
+        } catch (IOException e) {
+            //A read-only directory only costs the speed-up
+            logger.warn("Could not save maze cache: {}", e.getMessage());
+        }
+        return grid;
+    }
+
+    /* Public method: fillDeadEnds()
+    Description: walls up the dead ends of the loaded grid in parallel, entry and exit stay open
+    Returns: long (number of cells filled) */
+    public long fillDeadEnds(ForkJoinPool pool) {
+        long filled = new DeadEndFiller(grid, getEntry(), getExit()).fill(pool);
+        //Masks saved in the cache describe the grid before filling
+        openDirections = null;
+        return filled;
+    }
+
+    /* Public method: getOpenDirections()
+    Description: gets the open-direction masks, from the cache when they were saved in it
+    Returns: OpenDirectionTable */
+    public OpenDirectionTable getOpenDirections() {
+        if (openDirections == null) {
+            openDirections = new OpenDirectionTable(grid);
+        }
+        return openDirections;
+    }
 
     /* Public method: getEntry()
     Description: gets index of entry point and stores it in an array of size 2
-    Returns: int[] */
+    Returns: int[] (null when the west border has no opening) */
     public int[] getEntry() {
-
-        int[] entry = new int[2];
-        for (int i = 0; i < rows; i++) {
-            if (mazeArray[i][0] == ' ') {
-                entry[0] = i;
-                entry[1] = 0;
-                break;
+        if (!entryKnown) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                if (!grid.isWall(i, 0)) {
+                    cachedEntry = new int[] {i, 0};
+                    break;
+                }
             }
+            entryKnown = true;
+            entryExitNanos += System.nanoTime() - start;
         }
-        return entry;
+        return cachedEntry == null ? null : cachedEntry.clone();
     }
 
     /* Public method: getExit()
     Description: gets index of exit point and stores it in an array of size 2
-    Returns: int[] */
+    Returns: int[] (null when the east border has no opening) */
     public int[] getExit() {
-        int[] exit = new int[2];
-        for (int i = 0; i < rows; i++) {
-            if (mazeArray[i][cols-1] == ' ') {
-                exit[0] = i;
-                exit[1] = cols-1;
-                break;
+        if (!exitKnown) {
+            long start = System.nanoTime();
+            for (int i = 0; i < rows; i++) {
+                if (!grid.isWall(i, cols-1)) {
+                    cachedExit = new int[] {i, cols-1};
+                    break;
+                }
             }
-            
+            exitKnown = true;
+            entryExitNanos += System.nanoTime() - start;
         }
-        return exit;
+        return cachedExit == null ? null : cachedExit.clone();
+    }
+
+    /* Public static method: noOpening()
+    Description: describes which border opening is missing, for entry and exit from getEntry() and getExit()
+    Returns: String */
+    public static String noOpening(int[] entry, int[] exit) {
+        return "the maze has no " + (entry == null ? "entry" : "exit") + " opening";
     }
 
     /* Public method: initializeFace()
     Description: puts initial face on the maze entrance
     Returns: void */
     public void initializeFace() {
-        int[] entrance = getEntry();
-        mazeArray[entrance[0]][entrance[1]] = runner;
+        runnerCell = getEntry();
+    }
+
+    /* Public method: renderRow()
+    Description: renders a row of the maze, with the runner marker once it is placed
+    Returns: String */
+    public String renderRow(int row) {
+        String line = grid.rowToString(row);
+        if (runnerCell != null && runnerCell[0] == row) {
+            char[] cells = line.toCharArray();
+            cells[runnerCell[1]] = runner;
+            line = new String(cells);
+        }
+        return line;
     }
 
     //Methods for behaviours of person 
@@ -249,51 +572,94 @@ class Maze {
 //Class for runner to traverse through the maze
 class Person {
     private static final Logger logger = LogManager.getLogger();
+    //Facing chars by direction index, clockwise from north (0 = N, 1 = E, 2 = S, 3 = W)
+    private static final String FACES = "NESW";
+    //Change of the packed position for one step in each direction (row in the high 32 bits, column in the low 32)
+    private static final long[] STEP = {-(1L << 32), 1L, 1L << 32, -1L};
+
     //Attributes for person
-    private char currentFace;
+    private int direction;
+    private long position;
     @SuppressWarnings("FieldMayBeFinal")
-    private int[] currentPosition;
+    private boolean[] surroundings = new boolean[4]; //true when there is a wall on that side
     @SuppressWarnings("FieldMayBeFinal")
-    private char[] surroundings = new char[4];
-    @SuppressWarnings("FieldMayBeFinal")
-    private char[][] maze;
-    private char east;
-    private char west;
-    private char north;
-    private char south;
-    private final int[] start;
-    private final int[] end;
-
-    //Constructor
-    public Person(char[][] maze, char currentFace, int[] currentPosition, int[] start, int[] end) {
+    private MazeGrid maze;
+    private boolean east;
+    private boolean west;
+    private boolean north;
+    private boolean south;
+    private final long start;
+    private final long end;
+    private OpenDirectionTable openDirections; //optional, replaces the four grid reads of checkSurroundings()
+
+    //Constructor, the positions are copied so the arrays given are never moved
+    public Person(MazeGrid maze, char currentFace, int[] currentPosition, int[] start, int[] end) {
         this.maze = maze;
-        this.currentFace = currentFace;
-        this.currentPosition = currentPosition;
-        this.start = start;
-        this.end = end;
+        this.direction = directionOf(currentFace);
+        this.position = pack(currentPosition[0], currentPosition[1]);
+        this.start = pack(start[0], start[1]);
+        this.end = pack(end[0], end[1]);
 
         
     }
 
+    /* Public static method: directionOf()
+    Description: converts a facing char to its direction index
+    Returns: int */
+    public static int directionOf(char face) {
+        int index = FACES.indexOf(face);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown facing: " + face);
+        }
+        return index;
+    }
+
+    //Positions are packed as (row << 32) | col
+    private static long pack(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
     //Methods for behaviours of person 
     /* Public method: getCurrentFace()
     Description: gets char for current direction facing 
     Returns: char */
     public char getCurrentFace() {
-        return currentFace;           
+        return FACES.charAt(direction);           
+    }
+
+    /* Public method: getDirection()
+    Description: gets the current direction index (0 = N, 1 = E, 2 = S, 3 = W)
+    Returns: int */
+    public int getDirection() {
+        return direction;
     }
 
     /* Public method: getCurrentPosition()
-    Description: gets index values for current position
+    Description: gets index values for current position, as a new array
     Returns: int[] */
     public int[] getCurrentPosition() {
-        return currentPosition;           
+        return new int[] {getRow(), getCol()};           
+    }
+
+    public int getRow() {
+        return (int) (position >> 32);
+    }
+
+    public int getCol() {
+        return (int) position;
+    }
+
+    /* Public method: isAtEnd()
+    Description: checks if the runner stands on the end position
+    Returns: boolean */
+    public boolean isAtEnd() {
+        return position == end;
     }
 
     /* Public method: getMaze()
-    Description: gets the maze's current placements
-    Returns: char[][] */
-    public char[][] getMaze() {
+    Description: gets the maze's wall grid
+    Returns: MazeGrid */
+    public MazeGrid getMaze() {
         return maze;           
     }
 
@@ -301,48 +667,63 @@ class Person {
     Description: gets index values for start position
     Returns: int[] */
     public int[] getStart() {
-        return start;           
+        return new int[] {(int) (start >> 32), (int) start};           
     }
 
         /* Public method: getEnd()
     Description: gets index values for end position
     Returns: int[] */
     public int[] getEnd() {
-        return end;           
+        return new int[] {(int) (end >> 32), (int) end};           
+    }
+
+    /* Public method: useOpenDirections()
+    Description: reads surroundings from a precomputed open-direction table instead of the grid
+    Returns: void */
+    public void useOpenDirections(OpenDirectionTable openDirections) {
+        this.openDirections = openDirections;
+    }
+
+    /* Public method: getOpenDirections()
+    Description: gets the open-direction table in use, shared read-only by runners on the same maze
+    Returns: OpenDirectionTable (null when the grid is read directly) */
+    public OpenDirectionTable getOpenDirections() {
+        return openDirections;
+    }
+
+    /* Public method: hasOpenDirections()
+    Description: checks if an open-direction table is in use
+    Returns: boolean */
+    public boolean hasOpenDirections() {
+        return openDirections != null;
+    }
+
+    /* Public method: getOpenMask()
+    Description: gets the open directions of the current cell from the table (one byte lookup)
+    Returns: int */
+    public int getOpenMask() {
+        return openDirections.mask(getRow(), getCol());
     }
 
     /* Public method: checkSurroundings()
     Description: Updates the north, south, east, west variables based on what's surrounding the current position
     Returns: char[] */
     public void checkSurroundings() {
-
-        //Check for column forward
-        if (currentPosition[1] + 1 < maze[0].length) {
-            east = maze[currentPosition[0]][currentPosition[1]+1];
-        }
-        else {
-            east = '#';
-        }
-        //Check for column behind
-        if (currentPosition[1] - 1 >= 0) { 
-            west = maze[currentPosition[0]][currentPosition[1]-1];
-        }
-        else {
-            west = '#';
-        }
-        //Check for row above
-        if (currentPosition[0] - 1 >= 0) {
-            north = maze[currentPosition[0]-1][currentPosition[1]];
-        }
-        else {
-            north = '#';
-        }
-        //Check for row below
-        if (currentPosition[0] + 1 < maze.length) {
-            south = maze[currentPosition[0]+1][currentPosition[1]];
-        }
-        else {
-            south = '#';
+        int row = getRow();
+        int col = getCol();
+
+        if (openDirections != null) {
+            int open = openDirections.mask(row, col);
+            east = (open & OpenDirectionTable.EAST) == 0;
+            west = (open & OpenDirectionTable.WEST) == 0;
+            north = (open & OpenDirectionTable.NORTH) == 0;
+            south = (open & OpenDirectionTable.SOUTH) == 0;
+        } else {
+            //Cells outside the grid are reported as walls by the grid itself
+            east = maze.isWall(row, col + 1);
+            west = maze.isWall(row, col - 1);
+            north = maze.isWall(row - 1, col);
+            south = maze.isWall(row + 1, col);
         }
         //Assign all to a standard surroundings array
         surroundings[0] = east;
@@ -352,82 +733,42 @@ class Person {
     }
 
     /* Public method: getSurroundings()
-    Description: gets the surroundigns of the current runner
-    Returns: int[] */
-    public char[] getSurroundings() {
+    Description: gets the surroundigns of the current runner (true for a wall)
+    Returns: boolean[] */
+    public boolean[] getSurroundings() {
         return surroundings;           
     }
 
 
     /* Public method: moveForward()
-    Description: Checks surroundings, moves the runner 1 step forward respective to the direction they are facing
-    and checks surroundings again
+    Description: moves the runner 1 step forward in the direction they are facing
     Returns: void */
     public void moveForward() {
-        switch(currentFace) {
-            //Facing east means move a column forward that row
-            case 'E':
-                currentPosition[1]+=1;
-                break;
-            //Facing west means move a column back that row
-            case 'W':
-                currentPosition[1]-=1;
-                break;
-            //Facing north means move a row up (back) that column
-            case 'N':
-                currentPosition[0]-=1;
-                break;
-            //Facing south means move a row down (forward) that column
-            case 'S':
-                currentPosition[0]+=1;
-                break;
-        }
+        position += STEP[direction];
+
+    }
+
+    /* Public method: moveForward(int steps)
+    Description: Moves the runner several steps forward at once, the caller checks there is no wall on the way
+    Returns: void */
+    public void moveForward(int steps) {
+        position += STEP[direction] * steps;
 
     }
 
     /* Public method: turnRight()
     Description: Turns the runner right respective to the direction they are facing
-    and checks surroundings
     Returns: void */
     public void turnRight() {
-        switch(currentFace) {
-            case 'E':
-                currentFace = 'S';
-                break;
-            case 'W':
-                currentFace = 'N';
-                break;
-            case 'N':
-                currentFace = 'E';
-                break;
-            case 'S':   
-                currentFace = 'W';
-                break;
-        }
-
-        
+        direction = (direction + 1) & 3;
 
     }
 
     /* Public method: turnLeft()
     Description: Turns the runner left respective to the direction they are facing
-    and checks surroundings
     Returns: void */
     public void turnLeft() {
-        switch(currentFace) {
-            case 'E':
-                currentFace = 'N';
-                break;
-            case 'W':
-                currentFace = 'S';
-                break;
-            case 'N':
-                currentFace = 'W';
-                break;
-            case 'S':   
-                currentFace = 'E';
-                break;
-        }
+        direction = (direction + 3) & 3;
 
 
     }
@@ -478,29 +819,265 @@ class TurnRightCommand implements Command {
 
 //Abstract class for template design pattern
 abstract class AbstractPathSolver {
+    private static final Logger logger = LogManager.getLogger();
     protected Person person;
+    protected PathBuffer path = new PathBuffer(); //2 bits per move, rendered as text on demand
+    private String factorizedPath = "";
+    protected PrintStream output = System.out; //where postProcess() prints its results
+    private SolveStatus stopStatus; //set by a solver that gives up before reaching the exit
+    //Deadline and token are polled once every CHECK_INTERVAL steps, the step budget on every step
+    private static final int CHECK_INTERVAL = 1024;
+    private SolveLimits limits = SolveLimits.NONE;
+    private long deadline;
+    private boolean limitsReleased; //set by releaseLimits(), the rest of the solve is unbounded
+    private long startNanos;
+    private long elapsedNanos;
+    private long steps;
+    private long factorizeNanos;
+    private boolean metricsEnabled;
+    private SolverMetrics metrics; //null unless metrics are collected
+    private MoveSink moveSink; //set in streaming mode, moves then skip the path
 
     public AbstractPathSolver (Person person) {
         this.person = person;
     }
 
-    //Template method
-    public final void solvePath() {
-        while (!checkWin()) {
-            doStep();
+    /* Public method: setLimits()
+    Description: bounds the next solvePath() by a step budget, a time limit and a cancellation token
+    Returns: void */
+    public void setLimits(SolveLimits limits) {
+        this.limits = limits;
+    }
+
+    /* Protected method: getLimits()
+    Description: gets the limits of this solver, e.g. to pass them on to solvers it runs itself
+    Returns: SolveLimits */
+    protected SolveLimits getLimits() {
+        return limits;
+    }
+
+    /* Public method: enableMetrics()
+    Description: collects move counters and the visited cells during the next solvePath(), see getMetrics()
+    Returns: void */
+    public void enableMetrics() {
+        metricsEnabled = true;
+    }
+
+    /* Public method: getMetrics()
+    Description: gets the metrics of the last solvePath()
+    Returns: SolverMetrics (null when they were not collected) */
+    public SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /* Public method: setMoveSink()
+    Description: streams the moves to a sink as they are made instead of keeping them, postProcess() is then
+    skipped and showPath() stays empty
+    Returns: void */
+    public void setMoveSink(MoveSink moveSink) {
+        this.moveSink = moveSink;
+    }
+
+    /* Public method: setOutput()
+    Description: sends the printed results to another stream (e.g. one buffer per maze in batch mode)
+    Returns: void */
+    public void setOutput(PrintStream output) {
+        this.output = output;
+    }
+
+    //Template method, postProcess() only runs when the exit is reached
+    //A limit ends the loop early and leaves the path walked so far in showPath()
+    public final SolveStatus solvePath() {
+        //A JFR recording of the event turns the counters on, otherwise the step loop only pays a null check
+        SolveEvent event = new SolveEvent();
+        if (metricsEnabled || event.isEnabled()) {
+            metrics = new SolverMetrics(getClass().getSimpleName(), person.getMaze(), person.getRow(), person.getCol());
+        }
+        event.begin();
+        startNanos = System.nanoTime();
+        Duration timeout = limits.getTimeout();
+        deadline = timeout == null ? 0 : startNanos + timeout.toNanos();
+        long maxSteps = limits.getMaxSteps();
+        limitsReleased = false;
+        //A runner starting or ending on a wall (a maze without an opening) has nowhere to go
+        int[] end = person.getEnd();
+        if (person.getMaze().isWall(person.getRow(), person.getCol()) || person.getMaze().isWall(end[0], end[1])) {
+            stop(SolveStatus.UNSOLVABLE);
+        } else {
+            preProcess();
+        }
+        //preProcess() may already have given up, before the runner is checked against the exit
+        while (stopStatus == null && !checkWin()) {
+            if (steps >= maxSteps && !limitsReleased) {
+                stop(SolveStatus.STEP_LIMIT);
+            } else if (!pollLimits(steps)) {
+                doStep();
+                steps++;
+            }
+        }
+        elapsedNanos = System.nanoTime() - startNanos;
+        if (stopStatus != null) {
+            logger.info("Solver stopped: {} {}", stopStatus.getDescription(), getProgress());
+            return finish(stopStatus, event);
+        }
+        if (moveSink == null) {
+            postProcess();
+        }
+        return finish(SolveStatus.SOLVED, event);
+    }
+
+    /* Private method: finish()
+    Description: completes the metrics and commits the JFR event of a solve
+    Returns: SolveStatus (the status given) */
+    private SolveStatus finish(SolveStatus status, SolveEvent event) {
+        //A stopped solve still ends its stream, the moves so far are the partial path
+        if (moveSink != null) {
+            try {
+                moveSink.finish(status == SolveStatus.SOLVED);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        event.end();
+        if (metrics != null) {
+            metrics.finish(status, steps, elapsedNanos, factorizeNanos);
+            if (event.shouldCommit()) {
+                event.fill(metrics);
+                event.commit();
+            }
+        }
+        return status;
+    }
+
+    /* Protected method: recordMove()
+    Description: adds a move the runner just made to the path (or the move sink), and to the metrics when they are collected
+    Returns: void */
+    protected final void recordMove(char move) {
+        if (moveSink == null) {
+            path.append(move);
+        } else {
+            try {
+                moveSink.accept(move);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (metrics != null) {
+            metrics.recordMove(move, person);
+        }
+    }
 
+    /* Protected method: pollLimits()
+    Description: checks the time limit and the cancellation token when work (a step or loop counter) is a multiple
+    of CHECK_INTERVAL, so long loops (e.g. a search in preProcess()) can call it on every iteration
+    Returns: boolean (true when the solver has been stopped) */
+    protected final boolean pollLimits(long work) {
+        if (stopStatus == null && !limitsReleased && (work & (CHECK_INTERVAL - 1)) == 0) {
+            CancellationToken token = limits.getToken();
+            if (token != null && token.isCancelled()) {
+                stop(SolveStatus.CANCELLED);
+            } else if (limits.getTimeout() != null && System.nanoTime() - deadline >= 0) {
+                stop(SolveStatus.TIMED_OUT);
+            }
         }
-        postProcess();
+        return stopStatus != null;
+    }
+
+    /* Protected method: releaseLimits()
+    Description: lifts the limits for the rest of the current solvePath(), e.g. to walk a route that was already
+    found within them
+    Returns: void */
+    protected final void releaseLimits() {
+        limitsReleased = true;
+    }
+
+    /* Public method: getSteps()
+    Description: gets the number of steps taken by the last solvePath()
+    Returns: long */
+    public long getSteps() {
+        return steps;
+    }
+
+    /* Public method: getElapsedNanos()
+    Description: gets the time spent in the last solvePath(), search included
+    Returns: long */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /* Public method: getProgress()
+    Description: describes how far the last solvePath() got, for results stopped by a limit
+    Returns: String */
+    public String getProgress() {
+        return String.format("after %d steps in %.3f ms, runner at (%d, %d)", steps, elapsedNanos / 1e6, person.getRow(), person.getCol());
+    }
+
+    /* Protected method: stop()
+    Description: ends solvePath() before the exit is reached, with the reason given
+    Returns: void */
+    protected void stop(SolveStatus status) {
+        stopStatus = status;
+    }
+
+    /* Protected method: isStopped()
+    Description: checks if the solver gave up
+    Returns: boolean */
+    protected boolean isStopped() {
+        return stopStatus != null;
     }
 
     //methods overrided in subclasses
     protected abstract void doStep(); 
     protected abstract void postProcess();
 
+    //hook, overrided by solvers that need to prepare before the first step
+    protected void preProcess() {}
+
     //concrete method
     protected boolean checkWin() {
-        return person.getCurrentPosition()[0] == person.getEnd()[0]
-            && person.getCurrentPosition()[1] == person.getEnd()[1];
+        return person.isAtEnd();
+    }
+
+    /* Public method: showPath()
+    Description: generates canonical path of string
+    Returns: String */
+    public String showPath() {
+        return path.toString();
+    }
+
+    /* Public method: getPath()
+    Description: gets the moves made so far without rendering them, e.g. to validate them again
+    Returns: PathBuffer */
+    public PathBuffer getPath() {
+        return path;
+    }
+
+    /* Public method: getFactorizedPath()
+    Description: gets the factorized path made by the last factorizedPath() call
+    Returns: String */
+    public String getFactorizedPath() {
+        return factorizedPath;
+    }
+
+    /* Public method: factorizedPath()
+    Parameters: String (canonical path, e.g. from showPath())
+    Description: generates factorized expresson for path, each call replaces the previous one
+    Returns: String */
+    public String factorizedPath(String givenPath) {
+        long start = System.nanoTime();
+        factorizedPath = PathCodec.encode(givenPath);
+        factorizeNanos += System.nanoTime() - start;
+        return factorizedPath;
+    }
+
+    /* Public method: factorizedPath(PathBuffer)
+    Description: factorizes moves kept as 2-bit codes, straight from their runs
+    Returns: String */
+    public String factorizedPath(PathBuffer givenPath) {
+        long start = System.nanoTime();
+        factorizedPath = givenPath.toFactorized();
+        factorizeNanos += System.nanoTime() - start;
+        return factorizedPath;
     }
     
 }
@@ -509,19 +1086,26 @@ abstract class AbstractPathSolver {
 class GeneratedPath extends AbstractPathSolver {
     private static final Logger logger = LogManager.getLogger();
 
-    private StringBuilder path = new StringBuilder();
-    private StringBuilder factorizedPath =  new StringBuilder();
     private Command moveForwardCommand = new MoveForwardCommand();
     private Command turnLeftCommand = new TurnLeftCommand();
     private Command turnRightCommand = new TurnRightCommand();
-
-    private char right;
-    private char left;
-    private char front;
-    private char back;
+    private final boolean trace = logger.isTraceEnabled();
+    //Brent's cycle detection on the (cell, direction) state a step starts in, O(1) memory: the state saved at
+    //every power of two steps comes back only if the walk loops forever, found within O(4 * cells) steps
+    private final int cols;
+    private long savedState = -1;
+    private long cycleSteps;
+    private long cyclePower = 1;
+
+    //true when there is a wall on that side, relative to the current facing
+    private boolean right;
+    private boolean left;
+    private boolean front;
+    private boolean back;
 
     public GeneratedPath(Person person) {
         super(person);
+        this.cols = person.getMaze().getCols();
 
         
     }
@@ -532,41 +1116,45 @@ class GeneratedPath extends AbstractPathSolver {
     Description: Handles make decision Logic
     Returns: void */
     protected void doStep() {
+        //A step only depends on the cell and the facing, so a repeated state is a cycle without the exit
+        if (repeatsState()) {
+            logger.info("Wall follower came back to ({}, {}) facing {}, exit unreachable", person.getRow(), person.getCol(), person.getCurrentFace());
+            stop(SolveStatus.UNSOLVABLE);
+            return;
+        }
         //Check for element on front 
         //Check for the element on the right
         updateRelativeDirections();
-        if (right == '#') { //If it's a wall
+        if (right) { //If it's a wall
             //Turn left if there is also a wall in the front
-            if (front == '#') {
+            if (front) {
                 turnLeftCommand.execute(person);
                 //Add to path
-                path.append("L");
-                logger.info("Turning Left");
+                recordMove('L');
+                logger.trace("Turning Left");
             }
             else { //Move forward if there is no wall in the front
                 moveForwardCommand.execute(person);
                 //Add to path
-                path.append("F");
-                logger.info("Moving forward");
+                recordMove('F');
+                logger.trace("Moving forward");
             }
         } else { //If element on right is not a wall 
             
             turnRightCommand.execute(person); //Turn right
-            logger.info("Turning Right");
+            logger.trace("Turning Right");
             //Add to path
-            path.append("R");
-            logger.info("Current Position: " + Arrays.toString(person.getCurrentPosition()));
-            logger.info("Current Face: " + person.getCurrentFace());
+            recordMove('R');
+            traceState();
             updateRelativeDirections();
 
-            if (front != '#') {
+            if (!front) {
                 //Move forward
                 moveForwardCommand.execute(person);
                 //Add to path
-                path.append("F");
-                logger.info("Moving forward");
-                logger.info("Current Position: " + Arrays.toString(person.getCurrentPosition()));
-                logger.info("Current Face: " + person.getCurrentFace());
+                recordMove('F');
+                logger.trace("Moving forward");
+                traceState();
             }
             
         }
@@ -574,22 +1162,57 @@ class GeneratedPath extends AbstractPathSolver {
 
     }
 
+    /* Private method: repeatsState()
+    Description: compares the current (cell, direction) state with the saved one, saving it again at every power of two steps
+    Returns: boolean (true when the walk is back in the saved state) */
+    private boolean repeatsState() {
+        long state = ((long) person.getRow() * cols + person.getCol()) * 4 + person.getDirection();
+        if (state == savedState) {
+            return true;
+        }
+        if (++cycleSteps == cyclePower) {
+            savedState = state;
+            cyclePower <<= 1;
+            cycleSteps = 0;
+        }
+        return false;
+    }
+
+    /* Private method: traceState()
+    Description: logs position and facing in --trace mode, the guard keeps the step loop allocation free otherwise
+    Returns: void */
+    private void traceState() {
+        if (trace) {
+            int[] position = person.getCurrentPosition();
+            logger.trace("Current Position: [{}, {}]", position[0], position[1]);
+            logger.trace("Current Face: {}", person.getCurrentFace());
+        }
+    }
+
     @Override
     /* Protected method: postProcess()
     Description: Prints canonical and factorized path
     Returns: void */
     protected void postProcess() {
-        System.out.println("Canonical Path: " + showPath());
-        System.out.println("Factorized Path: " + factorizedPath(showPath()));
+        output.println("Canonical Path: " + showPath());
+        output.println("Factorized Path: " + factorizedPath(path));
     }
 
     /* Public method: updateRelativeDirections()
     Description: Updates relative right, left, front, back directions based on current facing 
     Returns: void */
     public void updateRelativeDirections() {
+        //With the precomputed table: one byte lookup and one table rotation
+        if (person.hasOpenDirections()) {
+            int open = OpenDirectionTable.relative(person.getOpenMask(), person.getDirection());
+            front = (open & OpenDirectionTable.FRONT) == 0;
+            right = (open & OpenDirectionTable.RIGHT) == 0;
+            back = (open & OpenDirectionTable.BACK) == 0;
+            left = (open & OpenDirectionTable.LEFT) == 0;
+            return;
+        }
         person.checkSurroundings();
-        char[] surroundings = person.getSurroundings();
-        char[][] maze = person.getMaze();
+        boolean[] surroundings = person.getSurroundings();
 
         //use switch case to identify what direction is right, left, front, back based on the respective facing side
         switch(person.getCurrentFace()) {
@@ -626,68 +1249,51 @@ class GeneratedPath extends AbstractPathSolver {
     public void recordPath() {
         while(!checkWin()) {
             doStep();
-            logger.info("Current Position: " + Arrays.toString(person.getCurrentPosition()));
-            logger.info("Current Face: " + person.getCurrentFace());
+            traceState();
         }
         logger.info("Done recording path!");
     }
 
-    /* Public method: showPath()
-    Description: generates canonical path of string
-    Returns: String */
-    public String showPath() {
-        return path.toString();
-    }
-
-    /* Public method: factorizedPath()
-    Parameters: StringBuilder (path given (cound be from -i or -p flag))
-    Description: generates factorized expresson for path
-    Returns: void */
-    public String factorizedPath(String givenPath) {
-        char currentLetter = givenPath.charAt(0); //first index of path string
-        int count = 1;
-        //Account for only 1 letter in path
-        if (givenPath.length() == 1) {
-            factorizedPath.append(currentLetter).append(" ");
-            return factorizedPath.toString();
-        }
-        for (int i = 1; i < givenPath.length(); i++) {
-            if (givenPath.charAt(i) == currentLetter) { //increase count if a consecutive index matches currentLetter
-                count++;
-            }
-            else { //If there is no match and the index is not the last one
-                if (count != 1) {
-                    factorizedPath.append(count); //append currentLetter and count to factorizedPath string
-                }
-                
-                factorizedPath.append(currentLetter).append(" ");
-            
-                currentLetter = givenPath.charAt(i); //set currentLetter to current index character
-                count = 1; //reset count to 1
-            }
-        }
-        //Account for last letter
-        if (count != 1) {
-            factorizedPath.append(count); //append currentLetter and count to factorizedPath string
-        }
-        factorizedPath.append(currentLetter).append(" ");
-
-        return factorizedPath.toString();
-
-    }
-
 }
 
 class ValidatePath extends AbstractPathSolver {
     private static final Logger logger = LogManager.getLogger();
+    private static final int BUFFER_SIZE = 8192;
+    //Row and column change of one step in each direction (0 = N, 1 = E, 2 = S, 3 = W)
+    private static final int[] DIRECTION_ROWS = {-1, 0, 1, 0};
+    private static final int[] DIRECTION_COLS = {0, 1, 0, -1};
     
-    private Command moveForwardCommand = new MoveForwardCommand();
     private Command turnLeftCommand = new TurnLeftCommand();
     private Command turnRightCommand = new TurnRightCommand();
+    //Run-length count being read, kept between characters so a path can arrive in chunks
+    private int moveCount;
+    private boolean countPending;
+    //Built once walking runs cell by cell has cost as much as building it, null until then
+    //(the scanner replaces the table on mazes above WallDistanceTable.MAX_CELLS)
+    private WallDistanceTable wallDistances;
+    private WallScanner wallScanner;
+    private long walkedCells;
+    //Progress through the path, reported in the ValidationResult
+    private long offset;
+    private long tokenStart;
+    private long steps;
+    private String failure;
+    private long failureOffset = -1;
 
     public ValidatePath(Person person) {
-        super(person);
+        this(person, null);
+    }
 
+    //Constructor sharing a wall distance table between many validations of the same maze (null to build it only if it pays off)
+    public ValidatePath(Person person, WallDistanceTable wallDistances) {
+        super(person);
+        this.wallDistances = wallDistances;
+        //A runner starting or ending on a wall (a maze without an opening) has no path to check
+        MazeGrid grid = person.getMaze();
+        int[] end = person.getEnd();
+        if (grid.isWall(person.getRow(), person.getCol()) || grid.isWall(end[0], end[1])) {
+            failure = "the maze has no opening to start or end on";
+        }
 
     }
 
@@ -702,67 +1308,166 @@ class ValidatePath extends AbstractPathSolver {
     Description: checks given path to see if it is valid
     Returns: Boolean */
     public boolean checkPath(String givenPath) {
+        return validate(givenPath).isValid();
+    }
+
+    /* Public method: checkPath(Reader)
+    Description: checks a path read through a fixed-size buffer, memory stays the same whatever the path length
+    Returns: Boolean */
+    public boolean checkPath(Reader givenPath) throws IOException {
+        return validate(givenPath).isValid();
+    }
+
+    /* Public method: validate()
+    Description: checks given path and reports where it failed, stops at the first wall or invalid move
+    Returns: ValidationResult */
+    public ValidationResult validate(String givenPath) {
         //Traverse the path string
-        for (int i = 0; i < givenPath.length(); i++) {
-            char currentChar = givenPath.charAt(i);
+        for (int i = 0; i < givenPath.length() && failure == null; i++) {
+            accept(givenPath.charAt(i));
+        }
 
-            //Detect consecutive digits
-            if (Character.isDigit(currentChar)) {
-                StringBuilder numberBuilder = new StringBuilder();
-                while (i < givenPath.length() && Character.isDigit(givenPath.charAt(i))) {
-                    numberBuilder.append(givenPath.charAt(i));
-                    i++;
-                }
+        return result();
+    }
 
-                int moveCount = Integer.parseInt(numberBuilder.toString());
+    /* Public method: validate(Reader)
+    Description: streaming version of validate(String), reads through a fixed-size buffer
+    Returns: ValidationResult */
+    public ValidationResult validate(Reader givenPath) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while (failure == null && (read = givenPath.read(buffer)) > 0) {
+            for (int i = 0; i < read && failure == null; i++) {
+                accept(buffer[i]);
+            }
+        }
 
-                //Apply move multiple times if number precedes a letter
-                if (i < givenPath.length()) {
-                    char moveChar = givenPath.charAt(i);
-                    for (int j = 0; j < moveCount; j++) {
-                        executeMove(moveChar);
-                    }
-                }
+        return result();
+    }
 
-                // Skip any spaces after the letter
-                while (i < givenPath.length() && givenPath.charAt(i) == ' ') {
-                    i++;
-                }
-            } else if (currentChar == 'F' || currentChar == 'R' || currentChar == 'L') { ////Process single letters normally if there is no number
-                logger.info("moving: " + currentChar);
-                executeMove(currentChar);
-            } 
-            
-            
+    /* Public method: validate(PathBuffer)
+    Description: checks moves kept as 2-bit codes (e.g. a solver's getPath()) one run at a time, no text involved
+    Returns: ValidationResult */
+    public ValidationResult validate(PathBuffer givenPath) {
+        for (long start = 0; start < givenPath.length() && failure == null; ) {
+            long end = givenPath.runEnd(start);
+            tokenStart = start;
+            executeMove(givenPath.moveAt(start), Math.toIntExact(end - start));
+            start = end;
         }
 
-        return checkWin();
+        return result();
     }
-    /* Private method: executeMove(char move)
-    Description: executes move for checkPath() method
+
+    /* Private method: result()
+    Description: builds the result once the whole path (or the part before the failure) is read
+    Returns: ValidationResult */
+    private ValidationResult result() {
+        if (failure == null && !checkWin()) {
+            failure = "path does not end on the exit";
+        }
+        return new ValidationResult(failure == null, failure, failureOffset, person.getRow(), person.getCol(), steps);
+    }
+
+    /* Private method: accept()
+    Description: feeds one character of the path, run-length counts are parsed in place
     Returns: void */
-    private void executeMove(char move) {
-        char[] surroundings = person.getSurroundings();
-    
+    private void accept(char currentChar) {
+        //Detect consecutive digits
+        if (currentChar >= '0' && currentChar <= '9') {
+            if (!countPending) {
+                tokenStart = offset;
+            }
+            int digit = currentChar - '0';
+            if (moveCount > (Integer.MAX_VALUE - digit) / 10) {
+                fail("run-length count too large");
+            }
+            moveCount = moveCount * 10 + digit;
+            countPending = true;
+        } else if (countPending) { //Apply move multiple times if number precedes a letter
+            executeMove(currentChar, moveCount);
+            moveCount = 0;
+            countPending = false;
+        } else if (currentChar == 'F' || currentChar == 'R' || currentChar == 'L') { ////Process single letters normally if there is no number
+            logger.trace("moving: {}", currentChar);
+            tokenStart = offset;
+            executeMove(currentChar, 1);
+        }
+        offset++;
+    }
+
+    /* Private method: fail()
+    Description: records the first failure and the offset of the token that caused it
+    Returns: void */
+    private void fail(String reason) {
+        failure = reason;
+        failureOffset = tokenStart;
+        logger.error("Error: {} (token at offset {})", reason, tokenStart);
+    }
+
+    /* Private method: executeMove(char move, int count)
+    Description: executes a whole run of the same move for checkPath(), in constant time
+    Returns: void */
+    private void executeMove(char move, int count) {
         switch (move) {
             case 'R':
-                turnRightCommand.execute(person);;
+                //Four turns bring the runner back to the same facing
+                for (int j = 0; j < (count & 3); j++) {
+                    turnRightCommand.execute(person);
+                }
                 break;
             case 'L':
-                turnLeftCommand.execute(person);
+                for (int j = 0; j < (count & 3); j++) {
+                    turnLeftCommand.execute(person);
+                }
                 break;
             case 'F':
-                if (surroundings[0] == '#') {  // Wall in front
-                    logger.error("Error: wall found in path");
-                    System.exit(0);
+                int reachable = reachable(count);
+                if (count > reachable) {  // Wall in front before the end of the run
+                    person.moveForward(reachable);
+                    steps += reachable;
+                    fail("wall found in path");
                 } else {
-                    moveForwardCommand.execute(person);
+                    person.moveForward(count);
+                    steps += count;
                 }
                 break;
             default:
-                logger.error("Invalid move: " + move);
-                System.exit(0);
+                fail("invalid move '" + move + "'");
+        }
+    }
+
+    /* Private method: reachable()
+    Description: counts the open cells ahead of the runner, up to count, from the wall distance table, the wall
+    scanner or cell by cell
+    Returns: int (count when the whole run is open) */
+    private int reachable(int count) {
+        MazeGrid grid = person.getMaze();
+        if (wallDistances == null && wallScanner == null && walkedCells >= (long) grid.getRows() * grid.getCols()) {
+            if (WallDistanceTable.fits(grid)) {
+                wallDistances = new WallDistanceTable(grid);
+            } else {
+                wallScanner = new WallScanner(grid);
+            }
+        }
+        if (wallDistances != null) {
+            return Math.min(count, wallDistances.distance(person.getRow(), person.getCol(), person.getDirection()));
+        }
+        if (wallScanner != null) {
+            return wallScanner.reachable(person.getRow(), person.getCol(), person.getDirection(), count);
+        }
+
+        int rowStep = DIRECTION_ROWS[person.getDirection()];
+        int colStep = DIRECTION_COLS[person.getDirection()];
+        int row = person.getRow();
+        int col = person.getCol();
+        int open = 0;
+        //Cells outside the grid are reported as walls by the grid itself
+        while (open < count && !grid.isWall(row + rowStep * (open + 1), col + colStep * (open + 1))) {
+            open++;
         }
+        walkedCells += open + 1;
+        return open;
     }
 
 }
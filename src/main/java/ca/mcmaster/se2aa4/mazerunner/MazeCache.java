@@ -0,0 +1,163 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Binary copy of a parsed maze, kept next to the source file as <file>.cache and memory-mapped on reload.
+Layout (little-endian): a 64-byte header (magic, version, rows, cols, flags, entry, exit, source size and
+modification time, word count), the grid words, then the open-direction masks when they were saved.
+A cache is used only if the source still has the size and modification time recorded in the header and the file
+has the exact size the header gives, anything else is treated as a miss and rewritten. The payload is not
+checksummed: caches are moved into place whole, and hashing it would make a reload as slow as reading it twice */
+class MazeCache {
+    private static final Logger logger = LogManager.getLogger();
+    static final String SUFFIX = ".cache";
+    private static final int MAGIC = 0x314D5A4D; //"MZM1" read as little-endian bytes
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    //Header flags
+    private static final int TILED = 1;
+    private static final int HAS_MASKS = 2;
+
+    private final boolean withIndexes;
+
+    //Maze read back from a cache file
+    static class CachedMaze {
+        final MazeGrid grid;
+        final int[] entry;
+        final int[] exit;
+        final OpenDirectionTable openDirections;
+
+        CachedMaze(MazeGrid grid, int[] entry, int[] exit, OpenDirectionTable openDirections) {
+            this.grid = grid;
+            this.entry = entry;
+            this.exit = exit;
+            this.openDirections = openDirections;
+        }
+    }
+
+    //withIndexes also saves the open-direction masks, a cache without them is then a miss
+    public MazeCache(boolean withIndexes) {
+        this.withIndexes = withIndexes;
+    }
+
+    public boolean storesIndexes() {
+        return withIndexes;
+    }
+
+    /* Public static method: cacheFile()
+    Description: gets the cache file kept next to a maze file
+    Returns: Path */
+    public static Path cacheFile(String inputFilePath) {
+        return Path.of(inputFilePath + SUFFIX);
+    }
+
+    /* Public method: read()
+    Description: maps the cache of a maze file and rebuilds the grid, entry, exit and masks from it, with one bulk
+    copy of the words and masks out of the mapping
+    Returns: CachedMaze (null when there is no usable cache) */
+    public CachedMaze read(String inputFilePath, boolean tiled) throws IOException {
+        Path file = cacheFile(inputFilePath);
+        BasicFileAttributes source = Files.readAttributes(Path.of(inputFilePath), BasicFileAttributes.class);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                return miss(file, "unexpected size " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return miss(file, "not a maze cache");
+            }
+            int rows = buffer.getInt(8);
+            int cols = buffer.getInt(12);
+            int flags = buffer.getInt(16);
+            if (buffer.getLong(36) != source.size() || buffer.getLong(44) != source.lastModifiedTime().toMillis()) {
+                return miss(file, "source file changed");
+            }
+            if (((flags & TILED) != 0) != tiled || (withIndexes && (flags & HAS_MASKS) == 0)) {
+                return miss(file, "saved with other options");
+            }
+
+            int wordCount = buffer.getInt(52);
+            long cells = (long) rows * cols;
+            long payload = (long) wordCount * Long.BYTES + ((flags & HAS_MASKS) != 0 ? cells : 0);
+            if (HEADER_BYTES + payload != size) {
+                return miss(file, "truncated");
+            }
+
+            long[] words = new long[wordCount];
+            buffer.slice(HEADER_BYTES, wordCount * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(words);
+            MazeGrid grid = MazeGrid.fromWords(rows, cols, tiled, words);
+            OpenDirectionTable openDirections = null;
+            if ((flags & HAS_MASKS) != 0) {
+                byte[] masks = new byte[(int) cells];
+                buffer.get(HEADER_BYTES + wordCount * Long.BYTES, masks);
+                openDirections = new OpenDirectionTable(cols, masks);
+            }
+            logger.info("Loaded maze from cache {}", file);
+            return new CachedMaze(grid, new int[] {buffer.getInt(20), buffer.getInt(24)},
+                    new int[] {buffer.getInt(28), buffer.getInt(32)}, openDirections);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /* Public method: write()
+    Description: saves a parsed maze next to its source, through a temporary file moved into place
+    Returns: void */
+    public void write(String inputFilePath, MazeGrid grid, int[] entry, int[] exit, OpenDirectionTable openDirections) throws IOException {
+        Path file = cacheFile(inputFilePath);
+        BasicFileAttributes source = Files.readAttributes(Path.of(inputFilePath), BasicFileAttributes.class);
+        long[] words = grid.getWords();
+        byte[] masks = openDirections == null ? new byte[0] : openDirections.getMasks();
+
+        ByteBuffer payload = ByteBuffer.allocate(Math.addExact(Math.multiplyExact(words.length, Long.BYTES), masks.length)).order(ByteOrder.LITTLE_ENDIAN);
+        payload.asLongBuffer().put(words);
+        payload.position(words.length * Long.BYTES);
+        payload.put(masks);
+        payload.flip();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(grid.getRows()).putInt(grid.getCols())
+                .putInt((grid.isTiled() ? TILED : 0) | (openDirections == null ? 0 : HAS_MASKS))
+                .putInt(entry[0]).putInt(entry[1]).putInt(exit[0]).putInt(exit[1])
+                .putLong(source.size()).putLong(source.lastModifiedTime().toMillis())
+                .putInt(words.length);
+        //The rest of the header is zero padding
+        header.rewind();
+
+        //One temporary name per writer thread, batch mode may save several caches at once
+        Path temporary = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + "-" + Thread.currentThread().threadId() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || payload.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, payload});
+                }
+            }
+            //Readers see either the old cache or the complete new one
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved maze cache {}", file);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private CachedMaze miss(Path file, String reason) {
+        logger.info("Ignoring maze cache {}: {}", file, reason);
+        return null;
+    }
+
+}
@@ -0,0 +1,175 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+//Abstract class for a maze stored as one bit per cell (1 = wall, 0 = passage)
+abstract class MazeGrid {
+    //Atomic access to single words, used by passes that change the grid from several threads
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    protected int rows;
+    protected final int cols;
+    protected long[] words;
+
+    protected MazeGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.words = new long[wordsFor(rows)];
+    }
+
+    /* Public static method: create()
+    Description: creates an empty grid (all passages) with the requested layout
+    Returns: MazeGrid */
+    public static MazeGrid create(int rows, int cols, boolean tiled) {
+        return tiled ? new TiledGrid(rows, cols) : new RowMajorGrid(rows, cols);
+    }
+
+    /* Package-private static method: fromWords()
+    Description: rebuilds a grid from the words of a saved grid with the same size and layout
+    Returns: MazeGrid */
+    static MazeGrid fromWords(int rows, int cols, boolean tiled, long[] words) {
+        MazeGrid grid = create(0, cols, tiled);
+        if (words.length != grid.wordsFor(rows)) {
+            throw new IllegalArgumentException("Expected " + grid.wordsFor(rows) + " words for " + rows + " rows, got " + words.length);
+        }
+        grid.rows = rows;
+        grid.words = words;
+        return grid;
+    }
+
+    //methods overrided in subclasses
+    protected abstract long bitIndex(int row, int col);
+    protected abstract int wordsFor(int rows);
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public boolean isTiled() {
+        return this instanceof TiledGrid;
+    }
+
+    /* Package-private method: getWords()
+    Description: gets the backing words, shared with the grid (not copied)
+    Returns: long[] */
+    long[] getWords() {
+        return words;
+    }
+
+    /* Public method: isWall()
+    Description: checks the bit of a cell, anything outside the grid counts as a wall
+    Returns: boolean */
+    public boolean isWall(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) {
+            return true;
+        }
+        long bit = bitIndex(row, col);
+        return (words[(int) (bit >>> 6)] & (1L << bit)) != 0;
+    }
+
+    /* Public method: setWall()
+    Description: marks a cell as a wall
+    Returns: void */
+    public void setWall(int row, int col) {
+        long bit = bitIndex(row, col);
+        words[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+    /* Package-private method: isWallVolatile()
+    Description: isWall() with a volatile read, sees walls set by claimWall() on other threads
+    Returns: boolean */
+    boolean isWallVolatile(int row, int col) {
+        if (row < 0 || col < 0 || row >= rows || col >= cols) {
+            return true;
+        }
+        long bit = bitIndex(row, col);
+        return ((long) WORDS.getVolatile(words, (int) (bit >>> 6)) & (1L << bit)) != 0;
+    }
+
+    /* Package-private method: claimWall()
+    Description: atomically turns a passage into a wall, only one of several racing threads succeeds
+    Returns: boolean (true when this call set the bit) */
+    boolean claimWall(int row, int col) {
+        long bit = bitIndex(row, col);
+        long mask = 1L << bit;
+        return ((long) WORDS.getAndBitwiseOr(words, (int) (bit >>> 6), mask) & mask) == 0;
+    }
+
+    /* Package-private method: copy()
+    Description: copies the grid with its layout
+    Returns: MazeGrid */
+    MazeGrid copy() {
+        return fromWords(rows, cols, isTiled(), words.clone());
+    }
+
+    /* Package-private method: resize()
+    Description: grows or trims the grid to a number of rows, both layouts keep earlier rows as a prefix
+    Returns: void */
+    void resize(int newRows) {
+        words = Arrays.copyOf(words, wordsFor(newRows));
+        rows = newRows;
+    }
+
+    /* Public method: rowToString()
+    Description: renders a row with '#' for walls and ' ' for passages
+    Returns: String */
+    public String rowToString(int row) {
+        char[] line = new char[cols];
+        for (int col = 0; col < cols; col++) {
+            line[col] = isWall(row, col) ? '#' : ' ';
+        }
+        return new String(line);
+    }
+
+}
+
+//Cells stored row after row, bit (row * cols + col)
+class RowMajorGrid extends MazeGrid {
+
+    public RowMajorGrid(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    @Override
+    protected long bitIndex(int row, int col) {
+        return (long) row * cols + col;
+    }
+
+    @Override
+    protected int wordsFor(int rows) {
+        return Math.toIntExact(((long) rows * cols + 63) >>> 6);
+    }
+
+}
+
+//Cells stored in 8x8 tiles, one long per tile, Morton (Z) order inside the tile
+class TiledGrid extends MazeGrid {
+    //Spreads the 3 low bits of a coordinate over the even bit positions
+    private static final int[] SPREAD = {0, 1, 4, 5, 16, 17, 20, 21};
+
+    public TiledGrid(int rows, int cols) {
+        super(rows, cols);
+    }
+
+    @Override
+    protected long bitIndex(int row, int col) {
+        long tile = (long) (row >>> 3) * tileCols() + (col >>> 3);
+        return (tile << 6) | SPREAD[col & 7] | (SPREAD[row & 7] << 1);
+    }
+
+    @Override
+    protected int wordsFor(int rows) {
+        return Math.toIntExact((long) ((rows + 7) >>> 3) * tileCols());
+    }
+
+    private int tileCols() {
+        return (cols + 7) >>> 3;
+    }
+
+}
@@ -0,0 +1,147 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Class to load a maze file in a single pass through a memory-mapped channel
+class MazeLoader {
+    //Largest region of the file mapped at once, lines never straddle two regions
+    private static final long MAX_WINDOW = 1L << 30;
+    //SWAR constants used to find a newline byte inside a 64-bit word
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final long windowSize;
+    private final boolean tiled;
+    private MazeGrid grid;
+    private int rowCount;
+    private int cols = -1;
+
+    public MazeLoader(boolean tiled) {
+        this(MAX_WINDOW, tiled);
+    }
+
+    //Constructor with a custom window size, used to exercise lines that cross window borders
+    MazeLoader(long windowSize, boolean tiled) {
+        this.windowSize = windowSize;
+        this.tiled = tiled;
+    }
+
+    /* Public static method: load()
+    Description: reads the maze file once into a row-major or tiled grid
+    Returns: MazeGrid */
+    public static MazeGrid load(String inputFilePath, boolean tiled) throws IOException {
+        return new MazeLoader(tiled).read(Path.of(inputFilePath));
+    }
+
+    /* Public method: read()
+    Description: maps the file window by window and fills the grid row by row
+    Returns: MazeGrid */
+    public MazeGrid read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(windowSize, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                boolean lastWindow = position + length == size;
+                int consumed = scanWindow(buffer, (int) length, lastWindow);
+                if (consumed == 0) {
+                    throw new IOException("Maze row longer than " + windowSize + " bytes");
+                }
+                position += consumed;
+            }
+        }
+        if (rowCount == 0) {
+            throw new IOException("Empty maze file: " + file);
+        }
+        grid.resize(rowCount);
+        return grid;
+    }
+
+    /* Public method: read()
+    Description: reads a maze held in memory (e.g. sent inline to the server) from position 0 to the limit
+    Returns: MazeGrid */
+    public MazeGrid read(ByteBuffer buffer) throws IOException {
+        ByteBuffer bytes = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        scanWindow(bytes, bytes.limit(), true);
+        if (rowCount == 0) {
+            throw new IOException("Empty maze");
+        }
+        grid.resize(rowCount);
+        return grid;
+    }
+
+    /* Private method: scanWindow()
+    Description: adds every complete line of the window to the grid
+    Returns: int (number of bytes consumed) */
+    private int scanWindow(ByteBuffer buffer, int length, boolean lastWindow) throws IOException {
+        int lineStart = 0;
+        int newline;
+        while ((newline = nextNewline(buffer, lineStart, length)) >= 0) {
+            addRow(buffer, lineStart, newline);
+            lineStart = newline + 1;
+        }
+        //Last line of the file may not end with a newline
+        if (lastWindow && lineStart < length) {
+            addRow(buffer, lineStart, length);
+            lineStart = length;
+        }
+        return lineStart;
+    }
+
+    /* Private method: nextNewline()
+    Description: finds the next '\n' eight bytes at a time, falling back to single bytes at the tail
+    Returns: int (index of the newline, -1 when there is none) */
+    private static int nextNewline(ByteBuffer buffer, int from, int length) {
+        int i = from;
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long word = buffer.getLong(i) ^ NEWLINES;
+            long found = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < length; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /* Private method: addRow()
+    Description: sets the wall bits of bytes [start, end) in a new row, dropping a trailing '\r'
+    Returns: void */
+    private void addRow(ByteBuffer buffer, int start, int end) throws IOException {
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        int width = end - start;
+        //The first row fixes the width of the maze
+        if (cols < 0) {
+            cols = width;
+            grid = MazeGrid.create(64, cols, tiled);
+        } else if (width > cols) {
+            throw new IOException("Row " + rowCount + " is longer than the first row");
+        }
+        if (rowCount == grid.getRows()) {
+            grid.resize(rowCount * 2);
+        }
+        //Missing cells of a short row stay passages
+        for (int idx = 0; idx < width; idx++) {
+            if (buffer.get(start + idx) == '#') {
+                grid.setWall(rowCount, idx);
+            }
+        }
+        rowCount++;
+    }
+
+}
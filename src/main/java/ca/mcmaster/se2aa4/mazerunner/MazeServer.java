@@ -0,0 +1,249 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Long-running server answering solve and validate requests over a local socket, one virtual thread per client.
+Line protocol (UTF-8), one request after the other on a connection:
+    SOLVE <maze file> [method]          -> Canonical Path: ... / Factorized Path: ... / OK
+    VALIDATE <maze file> <path>         -> Valid path! or Invalid path! / OK
+    QUIT                                -> closes the connection
+A maze file of - means the maze follows inline, one line per row, ended by a line holding END.
+A request that fails is answered with a single line: ERROR <message>, a line over the size limits also closes the connection */
+class MazeServer {
+    private static final Logger logger = LogManager.getLogger();
+    //Largest inline maze accepted, a client cannot make the server buffer more than this
+    private static final int MAX_INLINE_BYTES = 64 << 20;
+    //Longest request line, e.g. a VALIDATE with a long path
+    private static final int MAX_REQUEST_CHARS = 16 << 20;
+    private static final String REQUEST_TOO_LONG = "Request line longer than " + MAX_REQUEST_CHARS + " chars";
+    private static final String INLINE_TOO_LARGE = "Inline maze larger than " + MAX_INLINE_BYTES + " bytes";
+    private static final String INLINE = "-";
+    private static final String INLINE_END = "END";
+
+    private final boolean tiled;
+    private final boolean precompute;
+    private final SolveLimits limits;
+
+    //A line over its limit, the rest of it is unread so the connection cannot go on
+    private static class LineTooLongException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        LineTooLongException(String message) {
+            super(message);
+        }
+    }
+
+    //limits bound every SOLVE request, so one client cannot hold a thread forever
+    public MazeServer(boolean tiled, boolean precompute, SolveLimits limits) {
+        this.tiled = tiled;
+        this.precompute = precompute;
+        this.limits = limits;
+    }
+
+    /* Public method: serve()
+    Description: listens on "unix:<socket file>" or "[host:]port" (loopback by default) until the JVM stops
+    Returns: void */
+    public void serve(String address) throws IOException {
+        SocketAddress socketAddress = parseAddress(address);
+        ServerSocketChannel server;
+        if (socketAddress instanceof UnixDomainSocketAddress unixAddress) {
+            //A socket file left behind by an earlier server would make bind fail
+            Path socketFile = unixAddress.getPath();
+            if (Files.exists(socketFile) && !Files.isRegularFile(socketFile) && !Files.isDirectory(socketFile)) {
+                Files.delete(socketFile);
+            }
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+        try (server; ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.bind(socketAddress);
+            System.out.println("Serving on " + server.getLocalAddress());
+            while (true) {
+                SocketChannel client = server.accept();
+                clients.submit(() -> handle(client));
+            }
+        } finally {
+            if (socketAddress instanceof UnixDomainSocketAddress unixAddress) {
+                Files.deleteIfExists(unixAddress.getPath());
+            }
+        }
+    }
+
+    /* Static method: parseAddress()
+    Description: turns the --serve argument into a socket address
+    Returns: SocketAddress (throws IllegalArgumentException for a host other than loopback) */
+    static SocketAddress parseAddress(String address) {
+        if (address.startsWith("unix:")) {
+            return UnixDomainSocketAddress.of(address.substring("unix:".length()));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(address));
+        }
+        //Clients name files for the server to read, so only this machine may connect
+        InetSocketAddress socketAddress = new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        if (socketAddress.isUnresolved() || !socketAddress.getAddress().isLoopbackAddress()) {
+            throw new IllegalArgumentException("Can only serve on a loopback address, not " + address.substring(0, colon));
+        }
+        return socketAddress;
+    }
+
+    /* Private method: handle()
+    Description: answers the requests of one client until it quits or disconnects
+    Returns: void */
+    private void handle(SocketChannel client) {
+        try (client;
+             BufferedReader in = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(Channels.newWriter(client, StandardCharsets.UTF_8))) {
+            try {
+                String line;
+                while ((line = readLine(in, MAX_REQUEST_CHARS, REQUEST_TOO_LONG)) != null) {
+                    line = line.trim();
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    if (line.equalsIgnoreCase("QUIT")) {
+                        break;
+                    }
+                    respond(line, in, out);
+                    out.flush();
+                }
+            } catch (LineTooLongException e) {
+                //Answered before the connection is closed
+                logger.warn("Closing client connection: {}", e.getMessage());
+                out.println("ERROR " + e.getMessage());
+            }
+        } catch (IOException e) {
+            logger.warn("Client connection failed: {}", e.getMessage());
+        }
+    }
+
+    /* Private method: respond()
+    Description: runs one SOLVE or VALIDATE request and writes its answer
+    Returns: void */
+    private void respond(String request, BufferedReader in, PrintWriter out) throws IOException {
+        String[] words = request.split("\\s+", 3);
+        String command = words[0].toUpperCase();
+        String source = words.length > 1 ? words[1] : null;
+        String argument = words.length > 2 ? words[2] : null;
+        try {
+            //An inline maze is read first so the connection stays in step even if the request is rejected
+            MazeGrid grid = INLINE.equals(source) ? readInlineMaze(in) : null;
+            if (!command.equals("SOLVE") && !command.equals("VALIDATE")) {
+                out.println("ERROR Unknown command: " + words[0]);
+                return;
+            }
+            if (source == null) {
+                out.println("ERROR Missing maze file");
+                return;
+            }
+            Maze maze = grid != null ? new Maze(grid) : new Maze(source, tiled);
+            grid = maze.getGrid();
+            if (grid == null) {
+                out.println("ERROR Could not load maze " + source);
+                return;
+            }
+            int[] entry = maze.getEntry();
+            int[] exit = maze.getExit();
+            if (entry == null || exit == null) {
+                out.println("ERROR " + Maze.noOpening(entry, exit));
+                return;
+            }
+            Person runner = new Person(grid, maze.getInitialFace(), entry, entry, exit);
+            if (precompute) {
+                runner.useOpenDirections(maze.getOpenDirections());
+            }
+
+            if (command.equals("SOLVE")) {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                AbstractPathSolver solver = Main.createSolver(argument == null ? "righthand" : argument, runner);
+                solver.setOutput(new PrintStream(buffer, false, StandardCharsets.UTF_8));
+                solver.setLimits(limits);
+                SolveStatus status = solver.solvePath();
+                if (status != SolveStatus.SOLVED) {
+                    out.println("ERROR No path found: " + status.getDescription() + (status.isLimit() ? " " + solver.getProgress() : ""));
+                    return;
+                }
+                out.print(buffer.toString(StandardCharsets.UTF_8));
+            } else {
+                if (argument == null) {
+                    out.println("ERROR Missing path");
+                    return;
+                }
+                ValidationResult validation = new ValidatePath(runner).validate(argument);
+                logger.info("Validation result: {}", validation);
+                out.println(validation.isValid() ? "Valid path!" : "Invalid path!");
+            }
+            out.println("OK");
+        } catch (LineTooLongException e) {
+            //handle() answers it and closes the connection
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Request '{}' failed", request, e);
+            out.println("ERROR " + e.getMessage());
+        }
+    }
+
+    /* Private method: readInlineMaze()
+    Description: reads maze rows up to the END line and parses them like a maze file
+    Returns: MazeGrid */
+    private MazeGrid readInlineMaze(BufferedReader in) throws IOException {
+        StringBuilder rows = new StringBuilder();
+        String line;
+        //Each row may only take what is left of the inline budget, its line break included
+        while ((line = readLine(in, MAX_INLINE_BYTES - rows.length() - 1, INLINE_TOO_LARGE)) != null && !line.equals(INLINE_END)) {
+            rows.append(line).append('\n');
+        }
+        if (line == null) {
+            throw new IOException("Inline maze not ended by " + INLINE_END);
+        }
+        return new MazeLoader(tiled).read(ByteBuffer.wrap(rows.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /* Private static method: readLine()
+    Description: reads a line like BufferedReader.readLine() but buffers at most limit chars of it, a longer line
+    fails with the message given
+    Returns: String (null at the end of the stream) */
+    private static String readLine(BufferedReader in, int limit, String tooLong) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (line.length() >= limit) {
+                throw new LineTooLongException(tooLong);
+            }
+            line.append((char) c);
+        }
+        if (c == -1 && line.isEmpty()) {
+            return null;
+        }
+        //A line ended by \r\n, as readLine() accepts
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+}
@@ -0,0 +1,12 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+
+//Receives the moves of a solver as they are made, instead of the solver keeping the whole path
+interface MoveSink {
+    //Takes one F, L or R move
+    void accept(char move) throws IOException;
+
+    //Called once after the last move, complete is false when the solve stopped before the exit
+    void finish(boolean complete) throws IOException;
+}
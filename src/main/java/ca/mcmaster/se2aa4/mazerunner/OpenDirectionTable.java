@@ -0,0 +1,87 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Optional preprocessing: one byte per cell with a bit set for every open neighbour
+class OpenDirectionTable {
+    //Absolute direction bits, in clockwise order
+    public static final int NORTH = 1;
+    public static final int EAST = 2;
+    public static final int SOUTH = 4;
+    public static final int WEST = 8;
+    //Relative direction bits returned by relative()
+    public static final int FRONT = 1;
+    public static final int RIGHT = 2;
+    public static final int BACK = 4;
+    public static final int LEFT = 8;
+
+    //ROTATED[direction][mask] turns an absolute mask into front/right/back/left bits
+    private static final byte[][] ROTATED = new byte[4][16];
+
+    static {
+        for (int direction = 0; direction < 4; direction++) {
+            for (int mask = 0; mask < 16; mask++) {
+                //Rotate the 4-bit mask right by the direction index
+                ROTATED[direction][mask] = (byte) (((mask >>> direction) | (mask << (4 - direction))) & 0xF);
+            }
+        }
+    }
+
+    private final int cols;
+    private final byte[] masks;
+
+    public OpenDirectionTable(MazeGrid grid) {
+        int rows = grid.getRows();
+        this.cols = grid.getCols();
+        this.masks = new byte[Math.toIntExact((long) rows * cols)];
+
+        //Single pass over the maze, walls keep an empty mask
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (grid.isWall(row, col)) {
+                    continue;
+                }
+                int mask = 0;
+                if (!grid.isWall(row - 1, col)) {
+                    mask |= NORTH;
+                }
+                if (!grid.isWall(row, col + 1)) {
+                    mask |= EAST;
+                }
+                if (!grid.isWall(row + 1, col)) {
+                    mask |= SOUTH;
+                }
+                if (!grid.isWall(row, col - 1)) {
+                    mask |= WEST;
+                }
+                masks[row * cols + col] = (byte) mask;
+            }
+        }
+    }
+
+    //Table saved earlier, the masks are used as they are
+    OpenDirectionTable(int cols, byte[] masks) {
+        this.cols = cols;
+        this.masks = masks;
+    }
+
+    /* Public method: mask()
+    Description: gets the open directions of a cell (NORTH, EAST, SOUTH, WEST bits)
+    Returns: int */
+    public int mask(int row, int col) {
+        return masks[row * cols + col];
+    }
+
+    /* Public static method: relative()
+    Description: turns an absolute mask into FRONT, RIGHT, BACK, LEFT bits for a direction (0 = N, 1 = E, 2 = S, 3 = W)
+    Returns: int */
+    public static int relative(int mask, int direction) {
+        return ROTATED[direction][mask];
+    }
+
+    /* Package-private method: getMasks()
+    Description: gets the backing mask array, one byte per cell id
+    Returns: byte[] */
+    byte[] getMasks() {
+        return masks;
+    }
+
+}
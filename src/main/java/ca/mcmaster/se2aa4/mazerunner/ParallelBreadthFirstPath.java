@@ -0,0 +1,144 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Subclass of search path solver, level-synchronous breadth-first search on a fork-join pool.
+Each level's frontier is cut into chunks expanded in parallel, every chunk fills its own next-frontier
+array and the arrays are joined once the level is done. A cell is claimed with an atomic bit set, so
+exactly one chunk records its parent; when several shortest paths exist the one kept can differ between runs */
+class ParallelBreadthFirstPath extends SearchPathSolver {
+    private static final Logger logger = LogManager.getLogger();
+    //Frontiers below this are expanded by the calling thread, splitting them costs more than it saves
+    private static final int MIN_CHUNK = 2048;
+
+    private final ForkJoinPool pool;
+    private AtomicLongArray visited;
+    private int[] parent;
+
+    public ParallelBreadthFirstPath(Person person) {
+        this(person, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBreadthFirstPath(Person person, ForkJoinPool pool) {
+        super(person);
+        this.pool = pool;
+    }
+
+    @Override
+    /* Protected method: findCells()
+    Description: expands the search one level at a time until the level holding the end cell
+    Returns: int[] */
+    protected int[] findCells(int start, int end) {
+        visited = new AtomicLongArray((cellCount + 63) >>> 6);
+        parent = new int[cellCount];
+        claim(start);
+        parent[start] = start;
+        int[] frontier = {start};
+        int levels = 0;
+        while (frontier.length > 0 && !isClaimed(end)) {
+            if (pollLimits(0)) {
+                return null;
+            }
+            nodesExpanded += frontier.length;
+            frontier = expandLevel(frontier);
+            levels++;
+        }
+        logger.info("Parallel BFS expanded {} cells in {} levels", nodesExpanded, levels);
+        return isClaimed(end) ? tracePath(parent, start, end) : null;
+    }
+
+    /* Private method: expandLevel()
+    Description: expands every cell of a frontier, in chunks on the pool when it is large enough
+    Returns: int[] (the next frontier) */
+    private int[] expandLevel(int[] frontier) {
+        //A few chunks per worker so stolen work stays balanced
+        int chunk = Math.max(MIN_CHUNK, frontier.length / (pool.getParallelism() * 4));
+        Chunk[] chunks = new Chunk[(frontier.length + chunk - 1) / chunk];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = new Chunk(frontier, i * chunk, Math.min(frontier.length, (i + 1) * chunk));
+        }
+        if (chunks.length == 1) {
+            chunks[0].compute();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    ForkJoinTask.invokeAll(chunks);
+                }
+            });
+        }
+
+        //Join the per-chunk frontiers in chunk order
+        int size = 0;
+        for (Chunk part : chunks) {
+            size += part.size;
+        }
+        int[] next = new int[size];
+        int index = 0;
+        for (Chunk part : chunks) {
+            System.arraycopy(part.next, 0, next, index, part.size);
+            index += part.size;
+        }
+        return next;
+    }
+
+    //Cells from (inclusive) to (exclusive) of a frontier, with the cells they claimed for the next level
+    @SuppressWarnings("serial") //never serialized, RecursiveAction is only Serializable by inheritance
+    private final class Chunk extends RecursiveAction {
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private int[] next;
+        private int size;
+
+        Chunk(int[] frontier, int from, int to) {
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            //Room for all four neighbours of every cell
+            next = new int[(to - from) * 4];
+            for (int i = from; i < to; i++) {
+                int cell = frontier[i];
+                for (int direction = 0; direction < 4; direction++) {
+                    int neighbour = neighbour(cell, direction);
+                    if (neighbour >= 0 && claim(neighbour)) {
+                        parent[neighbour] = cell;
+                        next[size++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    /* Private method: claim()
+    Description: sets the visited bit of a cell
+    Returns: boolean (true only for the one caller that set it) */
+    private boolean claim(int cell) {
+        int word = cell >>> 6;
+        long mask = 1L << cell;
+        long seen = visited.get(word);
+        while ((seen & mask) == 0) {
+            long witness = visited.compareAndExchange(word, seen, seen | mask);
+            if (witness == seen) {
+                return true;
+            }
+            seen = witness;
+        }
+        return false;
+    }
+
+    private boolean isClaimed(int cell) {
+        return (visited.get(cell >>> 6) & (1L << cell)) != 0;
+    }
+
+}
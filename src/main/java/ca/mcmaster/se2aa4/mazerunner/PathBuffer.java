@@ -0,0 +1,135 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*Canonical path stored as 2-bit move codes, 32 moves per long (F = 0, L = 1, R = 2).
+A quarter of the byte per move a StringBuilder needs. Runs are found a word at a time,
+and the text forms are rendered on each call and never kept, so they cost nothing once printed */
+class PathBuffer {
+    static final int FORWARD = 0;
+    static final int LEFT = 1;
+    static final int RIGHT = 2;
+    private static final String MOVES = "FLR";
+    private static final int MOVES_PER_WORD = 32;
+    //Code 1 in every 2-bit slot, times a code fills a word with it
+    private static final long SLOTS = 0x5555555555555555L;
+    private static final int INITIAL_WORDS = 16;
+
+    private long[] words = new long[INITIAL_WORDS];
+    private long length;
+
+    /* Public static method: codeOf()
+    Description: converts F, L or R to its 2-bit code
+    Returns: int (throws IllegalArgumentException for any other character) */
+    public static int codeOf(char move) {
+        switch (move) {
+            case 'F':
+                return FORWARD;
+            case 'L':
+                return LEFT;
+            case 'R':
+                return RIGHT;
+            default:
+                throw new IllegalArgumentException("Invalid move '" + move + "'");
+        }
+    }
+
+    /* Public method: append()
+    Description: adds one move at the end of the path
+    Returns: void */
+    public void append(char move) {
+        appendCode(codeOf(move));
+    }
+
+    /* Public method: appendCode()
+    Description: adds one move given by its 2-bit code
+    Returns: void */
+    public void appendCode(int code) {
+        int word = (int) (length >>> 5);
+        if (word == words.length) {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        words[word] |= (long) code << ((length & (MOVES_PER_WORD - 1)) << 1);
+        length++;
+    }
+
+    /* Public method: clear()
+    Description: empties the path, keeping its storage for reuse
+    Returns: void */
+    public void clear() {
+        Arrays.fill(words, 0, (int) ((length + MOVES_PER_WORD - 1) >>> 5), 0L);
+        length = 0;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /* Public method: codeAt()
+    Description: gets the 2-bit code of the move at an index
+    Returns: int */
+    public int codeAt(long index) {
+        return (int) (words[(int) (index >>> 5)] >>> ((index & (MOVES_PER_WORD - 1)) << 1)) & 3;
+    }
+
+    /* Public method: moveAt()
+    Description: gets the move at an index as F, L or R
+    Returns: char */
+    public char moveAt(long index) {
+        return MOVES.charAt(codeAt(index));
+    }
+
+    /* Public method: runEnd()
+    Description: finds where the run of moves starting at an index ends, comparing a word at a time
+    Returns: long (index of the first different move, or length()) */
+    public long runEnd(long start) {
+        long pattern = codeAt(start) * SLOTS;
+        long index = start + 1;
+        while (index < length) {
+            long diff = (words[(int) (index >>> 5)] ^ pattern) >>> ((index & (MOVES_PER_WORD - 1)) << 1);
+            if (diff != 0) {
+                //The lowest differing slot is the first different move, slots past length() hold F
+                return Math.min(length, index + (Long.numberOfTrailingZeros(diff) >>> 1));
+            }
+            index = (index | (MOVES_PER_WORD - 1)) + 1;
+        }
+        return length;
+    }
+
+    /* Public method: toFactorized()
+    Description: renders the factorized path straight from the runs, sized exactly before it is written
+    Returns: String */
+    public String toFactorized() {
+        long size = 0;
+        for (long start = 0; start < length; ) {
+            long end = runEnd(start);
+            size += PathCodec.tokenLength(Math.toIntExact(end - start));
+            start = end;
+        }
+        byte[] factorized = new byte[Math.toIntExact(size)];
+        int index = 0;
+        for (long start = 0; start < length; ) {
+            long end = runEnd(start);
+            index = PathCodec.putToken(factorized, index, Math.toIntExact(end - start), (byte) moveAt(start));
+            start = end;
+        }
+        return new String(factorized, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    /* Public method: toString()
+    Description: renders the canonical path, the caller owns the String and nothing is cached here
+    Returns: String */
+    public String toString() {
+        byte[] moves = new byte[Math.toIntExact(length)];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = (byte) MOVES.charAt(codeAt(i));
+        }
+        return new String(moves, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,158 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*Converts between canonical paths (FFRFFL...) and factorized paths (2F R 2F L ...).
+A factorized path is one token per run of the same move, the count only when it is above 1,
+each token followed by a space. Both directions measure the output first, so it is allocated once
+at its exact size; runs are skipped 8 moves at a time */
+final class PathCodec {
+    //Reads 8 moves of a byte[] as one long
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long ONES = 0x0101010101010101L;
+
+    private PathCodec() {}
+
+    /* Public static method: encode()
+    Description: factorizes a canonical path held as ASCII bytes (moves[0] to moves[length - 1])
+    Returns: byte[] (the factorized path, ASCII) */
+    public static byte[] encode(byte[] moves, int length) {
+        int size = 0;
+        for (int start = 0; start < length; ) {
+            int end = runEnd(moves, start, length);
+            size += tokenLength(end - start);
+            start = end;
+        }
+        byte[] factorized = new byte[size];
+        int index = 0;
+        for (int start = 0; start < length; ) {
+            int end = runEnd(moves, start, length);
+            index = putToken(factorized, index, end - start, moves[start]);
+            start = end;
+        }
+        return factorized;
+    }
+
+    /* Public static method: encode()
+    Description: factorizes a canonical path held as a String, through its bytes (one copy, then 8 moves at a time)
+    Returns: String */
+    public static String encode(String moves) {
+        byte[] bytes = moves.getBytes(StandardCharsets.ISO_8859_1);
+        return new String(encode(bytes, bytes.length), StandardCharsets.ISO_8859_1);
+    }
+
+    /* Public static method: decode()
+    Description: expands a factorized path (counts optional, spaces optional) back to a canonical path
+    Returns: String (throws IllegalArgumentException on anything but counts, F, L, R and spaces) */
+    public static String decode(CharSequence factorized) {
+        int length = factorized.length();
+        long size = 0;
+        int count = 0;
+        //A count of 0 is a run of no moves (like the validator reads it), so a missing count is tracked apart
+        boolean counted = false;
+        for (int i = 0; i < length; i++) {
+            char c = factorized.charAt(i);
+            if (c >= '0' && c <= '9') {
+                count = Math.addExact(Math.multiplyExact(count, 10), c - '0');
+                counted = true;
+            } else if (isMove(c)) {
+                size += counted ? count : 1;
+                count = 0;
+                counted = false;
+            } else if (c == ' ' && !counted) {
+                continue;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + c + "' at " + i + " in factorized path");
+            }
+        }
+        if (counted) {
+            throw new IllegalArgumentException("Factorized path ends with a count and no move");
+        }
+        byte[] moves = new byte[Math.toIntExact(size)];
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            char c = factorized.charAt(i);
+            if (c >= '0' && c <= '9') {
+                count = count * 10 + (c - '0');
+                counted = true;
+            } else if (c != ' ') {
+                int run = counted ? count : 1;
+                Arrays.fill(moves, index, index + run, (byte) c);
+                index += run;
+                count = 0;
+                counted = false;
+            }
+        }
+        return new String(moves, StandardCharsets.ISO_8859_1);
+    }
+
+    /* Static method: runEnd()
+    Description: finds where the run of moves starting at start ends, comparing 8 moves at a time
+    Returns: int (index of the first different move, or end) */
+    static int runEnd(byte[] moves, int start, int end) {
+        byte move = moves[start];
+        long pattern = (move & 0xFFL) * ONES;
+        int i = start + 1;
+        while (i + Long.BYTES <= end) {
+            long diff = (long) LONGS.get(moves, i) ^ pattern;
+            if (diff != 0) {
+                //Little-endian, the lowest differing byte is the first different move
+                return i + (Long.numberOfTrailingZeros(diff) >>> 3);
+            }
+            i += Long.BYTES;
+        }
+        while (i < end && moves[i] == move) {
+            i++;
+        }
+        return i;
+    }
+
+    /* Static method: tokenLength()
+    Description: gets the length of the token written for a run: count (above 1), move and space
+    Returns: int */
+    static int tokenLength(int run) {
+        if (run < 10) {
+            return run == 1 ? 2 : 3;
+        }
+        return digits(run) + 2;
+    }
+
+    /* Static method: putToken()
+    Description: writes the token of a run at index
+    Returns: int (the index after the token) */
+    static int putToken(byte[] out, int index, int run, byte move) {
+        //Wall-follower runs are mostly single digits
+        if (run < 10) {
+            if (run > 1) {
+                out[index++] = (byte) ('0' + run);
+            }
+        } else {
+            int digits = digits(run);
+            for (int i = index + digits - 1; i >= index; i--) {
+                out[i] = (byte) ('0' + run % 10);
+                run /= 10;
+            }
+            index += digits;
+        }
+        out[index++] = move;
+        out[index++] = ' ';
+        return index;
+    }
+
+    private static int digits(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static boolean isMove(char c) {
+        return c == 'F' || c == 'L' || c == 'R';
+    }
+}
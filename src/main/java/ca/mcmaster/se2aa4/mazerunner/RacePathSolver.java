@@ -0,0 +1,222 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Runs several solvers at once on the same read-only grid, each with its own runner, and keeps the first
+path that is found and validated. The others are stopped through a shared cancellation token and joined
+before the race returns, so no solver outlives it. The winning moves are then walked like a planned route,
+without the limits again since the winner already kept to them (a wall-follower step can be two moves).
+Every entrant gets the race's limits; when they all stop on one, the race reports the entrant that went furthest */
+class RacePathSolver extends AbstractPathSolver {
+    private static final Logger logger = LogManager.getLogger();
+    static final List<String> DEFAULT_METHODS = List.of("righthand", "bfs", "astar", "graph");
+    //How often the wait for a result looks at this solver's own limits
+    private static final long POLL_MILLIS = 10;
+
+    private final List<String> methods;
+    private Command moveForwardCommand = new MoveForwardCommand();
+    private Command turnLeftCommand = new TurnLeftCommand();
+    private Command turnRightCommand = new TurnRightCommand();
+    private PathBuffer winningMoves;
+    private String winner;
+    private long nextMove;
+    //Entrant with the most steps when a limit stopped them all, null otherwise
+    private Entry furthest;
+
+    public RacePathSolver(Person person) {
+        this(person, DEFAULT_METHODS);
+    }
+
+    public RacePathSolver(Person person, List<String> methods) {
+        super(person);
+        this.methods = List.copyOf(methods);
+    }
+
+    //Result of one entrant, with its solver for the path and progress
+    private static class Entry {
+        final String method;
+        final SolveStatus status;
+        final AbstractPathSolver solver;
+
+        Entry(String method, SolveStatus status, AbstractPathSolver solver) {
+            this.method = method;
+            this.status = status;
+            this.solver = solver;
+        }
+    }
+
+    @Override
+    /* Protected method: preProcess()
+    Description: races the solvers, stops this one with the best reason found when none of them wins
+    Returns: void */
+    protected void preProcess() {
+        CancellationToken race = new CancellationToken();
+        boolean unsolvable = false;
+        SolveStatus limit = null;
+        //Platform threads: the solvers never block, virtual threads would run them one after the other
+        try (ExecutorService pool = Executors.newThreadPerTaskExecutor(Thread.ofPlatform().name("race-", 0).factory())) {
+            CompletionService<Entry> entries = new ExecutorCompletionService<>(pool);
+            for (String method : methods) {
+                entries.submit(() -> run(method, race));
+            }
+            for (int pending = methods.size(); pending > 0; ) {
+                Future<Entry> done = entries.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    //Cancelling this solver cancels the race
+                    if (pollLimits(0)) {
+                        race.cancel();
+                    }
+                    continue;
+                }
+                pending--;
+                Entry entry;
+                try {
+                    entry = done.get();
+                } catch (ExecutionException e) {
+                    //A failing entrant only loses, the others may still win
+                    logger.warn("Race entrant failed", e.getCause());
+                    continue;
+                }
+                if (entry.status == SolveStatus.SOLVED) {
+                    if (isValid(entry)) {
+                        winner = entry.method;
+                        winningMoves = entry.solver.getPath();
+                        race.cancel();
+                        break;
+                    }
+                } else if (entry.status == SolveStatus.UNSOLVABLE) {
+                    unsolvable = true;
+                } else {
+                    if (limit == null) {
+                        limit = entry.status;
+                    }
+                    if (furthest == null || entry.solver.getSteps() > furthest.solver.getSteps()) {
+                        furthest = entry;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            race.cancel();
+            stop(SolveStatus.CANCELLED);
+            return;
+        }
+        if (winningMoves == null) {
+            //One entrant proving there is no path beats the others running out of budget
+            if (!isStopped()) {
+                stop(unsolvable || limit == null ? SolveStatus.UNSOLVABLE : limit);
+            }
+            //Progress is only reported for a race stopped by a limit
+            if (unsolvable) {
+                furthest = null;
+            }
+            return;
+        }
+        furthest = null;
+        logger.info("Race won by {} with {} moves", winner, winningMoves.length());
+        nextMove = 0;
+        releaseLimits();
+    }
+
+    /* Private method: run()
+    Description: solves with one method on a fresh runner
+    Returns: Entry */
+    private Entry run(String method, CancellationToken race) {
+        AbstractPathSolver solver = Main.createSolver(method, newRunner());
+        solver.setOutput(new PrintStream(OutputStream.nullOutputStream()));
+        solver.setLimits(getLimits().withToken(race));
+        SolveStatus status = solver.solvePath();
+        logger.info("Race entrant {} finished: {}", method, status.getDescription());
+        return new Entry(method, status, solver);
+    }
+
+    /* Private method: isValid()
+    Description: checks the path of a solved entrant before it can win
+    Returns: boolean */
+    private boolean isValid(Entry entry) {
+        ValidationResult validation = new ValidatePath(newRunner()).validate(entry.solver.getPath());
+        if (!validation.isValid()) {
+            logger.warn("Race entrant {} found an invalid path: {}", entry.method, validation);
+        }
+        return validation.isValid();
+    }
+
+    private Person newRunner() {
+        Person runner = new Person(person.getMaze(), person.getCurrentFace(), person.getCurrentPosition(), person.getStart(), person.getEnd());
+        runner.useOpenDirections(person.getOpenDirections());
+        return runner;
+    }
+
+    @Override
+    /* Public method: getPath()
+    Description: gets the moves walked, or those of the entrant that went furthest when a limit stopped them all
+    Returns: PathBuffer */
+    public PathBuffer getPath() {
+        return furthest == null ? super.getPath() : furthest.solver.getPath();
+    }
+
+    @Override
+    /* Public method: getSteps()
+    Description: gets the steps walked, or those of the entrant that went furthest when a limit stopped them all
+    Returns: long */
+    public long getSteps() {
+        return furthest == null ? super.getSteps() : furthest.solver.getSteps();
+    }
+
+    @Override
+    /* Public method: getProgress()
+    Description: describes how far the race got, through the entrant that went furthest when a limit stopped them all
+    Returns: String */
+    public String getProgress() {
+        return furthest == null ? super.getProgress() : furthest.solver.getProgress() + " (" + furthest.method + " went furthest)";
+    }
+
+    /* Public method: getWinner()
+    Description: gets the method whose path was kept
+    Returns: String (null when no entrant solved the maze) */
+    public String getWinner() {
+        return winner;
+    }
+
+    @Override
+    /* Protected method: doStep()
+    Description: walks the next move of the winning path
+    Returns: void */
+    protected void doStep() {
+        char move = winningMoves.moveAt(nextMove++);
+        switch (move) {
+            case 'F':
+                moveForwardCommand.execute(person);
+                break;
+            case 'L':
+                turnLeftCommand.execute(person);
+                break;
+            case 'R':
+                turnRightCommand.execute(person);
+                break;
+        }
+        recordMove(move);
+    }
+
+    @Override
+    /* Protected method: postProcess()
+    Description: Prints canonical and factorized path
+    Returns: void */
+    protected void postProcess() {
+        output.println("Canonical Path: " + showPath());
+        output.println("Factorized Path: " + factorizedPath(path));
+    }
+
+}
@@ -0,0 +1,196 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/*Solved paths keyed by a SHA-256 of the maze cells plus the solver method.
+Entries are kept in an in-memory LRU map and as one file per entry in a directory, both capped at the
+same number of entries; on disk the least recently used entry is the one with the oldest modification time */
+class ResultCache {
+    private static final Logger logger = LogManager.getLogger();
+    private static final String SUFFIX = ".path";
+
+    private final Path directory;
+    private final int maxEntries;
+    private final Map<String, CachedPaths> memory;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    //Canonical and factorized path of one solved maze
+    static class CachedPaths {
+        final String canonical;
+        final String factorized;
+
+        CachedPaths(String canonical, String factorized) {
+            this.canonical = canonical;
+            this.factorized = factorized;
+        }
+    }
+
+    public ResultCache(Path directory, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Result cache size must be at least 1, got " + maxEntries);
+        }
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        //Access order turns the map into an LRU list
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPaths> eldest) {
+                return size() > ResultCache.this.maxEntries;
+            }
+        };
+        Files.createDirectories(directory);
+    }
+
+    /* Public static method: key()
+    Description: hashes the cells of a maze in row-major order (the same for both layouts) and the method name
+    Returns: String */
+    public static String key(MazeGrid grid, String method) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        int rows = grid.getRows();
+        int cols = grid.getCols();
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putInt(rows).putInt(cols);
+        digest.update(header.array());
+        //Row-major words hold the cells in order, a tiled grid is copied into that order first
+        long[] rowMajor = grid.getWords();
+        if (grid.isTiled()) {
+            rowMajor = new long[Math.toIntExact(((long) rows * cols + 63) >>> 6)];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    if (grid.isWall(r, c)) {
+                        long bit = (long) r * cols + c;
+                        rowMajor[(int) (bit >>> 6)] |= 1L << bit;
+                    }
+                }
+            }
+        }
+        ByteBuffer words = ByteBuffer.allocate(rowMajor.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        words.asLongBuffer().put(rowMajor);
+        digest.update(words);
+        digest.update(method.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /* Public method: get()
+    Description: looks a key up in memory, then on disk, and counts the hit or miss
+    Returns: CachedPaths (null on a miss) */
+    public CachedPaths get(String key) {
+        CachedPaths paths;
+        synchronized (memory) {
+            paths = memory.get(key);
+        }
+        if (paths == null) {
+            paths = readEntry(key);
+            if (paths != null) {
+                synchronized (memory) {
+                    memory.put(key, paths);
+                }
+            }
+        }
+        if (paths == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return paths;
+    }
+
+    /* Public method: put()
+    Description: stores solved paths in memory and on disk, evicting the least recently used entries
+    Returns: void */
+    public void put(String key, String canonical, String factorized) {
+        synchronized (memory) {
+            memory.put(key, new CachedPaths(canonical, factorized));
+        }
+        Path file = directory.resolve(key + SUFFIX);
+        Path temporary = directory.resolve(key + "." + Thread.currentThread().threadId() + ".tmp");
+        try {
+            Files.writeString(temporary, canonical + "\n" + factorized + "\n");
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            evictFromDisk();
+        } catch (IOException e) {
+            //The entry stays in memory, only the next run loses it
+            logger.warn("Could not save solved path {}: {}", file, e.getMessage());
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /* Private method: readEntry()
+    Description: reads an entry file and marks it as recently used
+    Returns: CachedPaths (null when there is none) */
+    private CachedPaths readEntry(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.size() != 2) {
+                logger.info("Ignoring malformed solved path {}", file);
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return new CachedPaths(lines.get(0), lines.get(1));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Could not read solved path {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /* Private method: evictFromDisk()
+    Description: deletes the least recently used entry files above the size cap
+    Returns: void */
+    private void evictFromDisk() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        List<Path> oldestFirst = entries.stream().sorted(Comparator.comparing(ResultCache::lastModified)).toList();
+        for (Path file : oldestFirst.subList(0, entries.size() - maxEntries)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/*Factorizes moves as they arrive and writes the tokens through a fixed-size buffer to a channel.
+Only the current run is remembered, so memory stays the same whatever the path length.
+The line is already written when a solve stops early, so it then ends with PARTIAL instead */
+class RunLengthWriter implements MoveSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //Longest token: ten digits, the move and a space
+    private static final int MAX_TOKEN = 12;
+    static final String PARTIAL = "(partial)";
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private char move;
+    private int count;
+
+    //prefix is written before the first token (e.g. "Factorized Path: ")
+    public RunLengthWriter(WritableByteChannel channel, String prefix) {
+        this.channel = channel;
+        buffer.put(prefix.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public void accept(char next) throws IOException {
+        if (next == move && count < Integer.MAX_VALUE) {
+            count++;
+            return;
+        }
+        writeRun();
+        move = next;
+        count = 1;
+    }
+
+    @Override
+    /* Public method: finish()
+    Description: writes the last run and the end of the line (marked partial unless complete), then empties the buffer into the channel
+    Returns: void */
+    public void finish(boolean complete) throws IOException {
+        writeRun();
+        count = 0;
+        if (!complete) {
+            if (buffer.remaining() < PARTIAL.length() + 1) {
+                flush();
+            }
+            buffer.put(PARTIAL.getBytes(StandardCharsets.US_ASCII));
+        }
+        buffer.put((byte) '\n');
+        flush();
+    }
+
+    /* Private method: writeRun()
+    Description: puts the token of the current run in the buffer, flushing first when it could not fit
+    Returns: void */
+    private void writeRun() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        if (buffer.remaining() < MAX_TOKEN + 1) {
+            flush();
+        }
+        int end = PathCodec.putToken(buffer.array(), buffer.position(), count, (byte) move);
+        buffer.position(end);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
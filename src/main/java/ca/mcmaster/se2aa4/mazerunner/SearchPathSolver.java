@@ -0,0 +1,167 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Abstract class for solvers that search the grid first, then walk the path they found step by step
+abstract class SearchPathSolver extends AbstractPathSolver {
+    protected final MazeGrid grid;
+    protected final int cols;
+    protected final int cellCount;
+    protected int nodesExpanded;
+
+    private Command moveForwardCommand = new MoveForwardCommand();
+    private Command turnLeftCommand = new TurnLeftCommand();
+    private Command turnRightCommand = new TurnRightCommand();
+    private String plannedMoves;
+    private int nextMove;
+
+    public SearchPathSolver(Person person) {
+        super(person);
+        this.grid = person.getMaze();
+        this.cols = grid.getCols();
+        //Cells are addressed by an int id (row * cols + col)
+        this.cellCount = Math.toIntExact((long) grid.getRows() * cols);
+    }
+
+    //method overrided in subclasses, returns the cell ids from start to end or null if there is no path
+    //(or if pollLimits() stopped the search)
+    protected abstract int[] findCells(int start, int end);
+
+    @Override
+    /* Protected method: preProcess()
+    Description: runs the search and turns the cells found into F/L/R moves, stops the solver when there is no path
+    Returns: void */
+    protected void preProcess() {
+        int start = cellId(person.getCurrentPosition());
+        int end = cellId(person.getEnd());
+        //A solver cancelled before it starts (e.g. a race already won) skips allocating its search arrays
+        int[] cells = pollLimits(0) ? null : findCells(start, end);
+        if (cells == null) {
+            //A search cut short by a limit has already set the reason
+            if (!isStopped()) {
+                stop(SolveStatus.UNSOLVABLE);
+            }
+            return;
+        }
+        plannedMoves = toMoves(cells, person.getCurrentFace());
+        nextMove = 0;
+    }
+
+    @Override
+    /* Protected method: doStep()
+    Description: walks the next planned move
+    Returns: void */
+    protected void doStep() {
+        char move = plannedMoves.charAt(nextMove++);
+        switch (move) {
+            case 'F':
+                moveForwardCommand.execute(person);
+                break;
+            case 'L':
+                turnLeftCommand.execute(person);
+                break;
+            case 'R':
+                turnRightCommand.execute(person);
+                break;
+        }
+        recordMove(move);
+    }
+
+    @Override
+    /* Protected method: postProcess()
+    Description: Prints canonical and factorized path
+    Returns: void */
+    protected void postProcess() {
+        output.println("Canonical Path: " + showPath());
+        output.println("Factorized Path: " + factorizedPath(path));
+    }
+
+    /* Public method: getNodesExpanded()
+    Description: gets the number of cells taken out of the open set during the search
+    Returns: int */
+    public int getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /* Protected method: cellId()
+    Description: converts a {row, col} position to a cell id
+    Returns: int */
+    protected int cellId(int[] position) {
+        return position[0] * cols + position[1];
+    }
+
+    /* Protected method: neighbour()
+    Description: gets the open cell next to a cell in a direction (0 = N, 1 = E, 2 = S, 3 = W)
+    Returns: int (the neighbour id, -1 when it is a wall or outside the grid) */
+    protected int neighbour(int cell, int direction) {
+        int row = cell / cols;
+        int col = cell % cols;
+        switch (direction) {
+            case 0:
+                row--;
+                break;
+            case 1:
+                col++;
+                break;
+            case 2:
+                row++;
+                break;
+            default:
+                col--;
+                break;
+        }
+        return grid.isWall(row, col) ? -1 : row * cols + col;
+    }
+
+    /* Protected method: toMoves()
+    Description: turns a sequence of adjacent cells into a canonical path, starting with the given facing
+    Returns: String */
+    protected String toMoves(int[] cells, char face) {
+        StringBuilder moves = new StringBuilder(cells.length * 2);
+        int facing = "NESW".indexOf(face);
+        for (int i = 1; i < cells.length; i++) {
+            int step = cells[i] - cells[i - 1];
+            int direction;
+            if (step == 1) {
+                direction = 1;
+            } else if (step == -1) {
+                direction = 3;
+            } else if (step > 0) {
+                direction = 2;
+            } else {
+                direction = 0;
+            }
+            //Number of right turns needed to face the next cell
+            switch ((direction - facing + 4) & 3) {
+                case 1:
+                    moves.append('R');
+                    break;
+                case 2:
+                    moves.append("LL");
+                    break;
+                case 3:
+                    moves.append('L');
+                    break;
+            }
+            moves.append('F');
+            facing = direction;
+        }
+        return moves.toString();
+    }
+
+    /* Protected static method: tracePath()
+    Description: follows parent links back from end to start and returns the cells in walking order
+    Returns: int[] */
+    protected static int[] tracePath(int[] parent, int start, int end) {
+        int length = 1;
+        for (int cell = end; cell != start; cell = parent[cell]) {
+            length++;
+        }
+        int[] cells = new int[length];
+        int cell = end;
+        for (int i = length - 1; i >= 0; i--) {
+            cells[i] = cell;
+            cell = parent[cell];
+        }
+        return cells;
+    }
+
+}
@@ -0,0 +1,58 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+//JFR event committed by AbstractPathSolver.solvePath(), its duration is the solve; recording it turns the metrics on
+@Name("ca.mcmaster.se2aa4.mazerunner.Solve")
+@Label("Maze Solve")
+@Category("Maze Runner")
+@Description("One run of a path solver with its move counters")
+class SolveEvent extends Event {
+    @Label("Method")
+    String method;
+
+    @Label("Status")
+    String status;
+
+    @Label("Steps")
+    long steps;
+
+    @Label("Forward Moves")
+    long forwardMoves;
+
+    @Label("Left Turns")
+    long leftTurns;
+
+    @Label("Right Turns")
+    long rightTurns;
+
+    @Label("Cells Visited")
+    long cellsVisited;
+
+    @Label("Revisits")
+    long revisits;
+
+    @Label("Factorize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long factorizeNanos;
+
+    /* Public method: fill()
+    Description: copies the counters of a finished solve into the event
+    Returns: void */
+    public void fill(SolverMetrics metrics) {
+        method = metrics.getMethod();
+        status = String.valueOf(metrics.getStatus());
+        steps = metrics.getSteps();
+        forwardMoves = metrics.getForwardMoves();
+        leftTurns = metrics.getLeftTurns();
+        rightTurns = metrics.getRightTurns();
+        cellsVisited = metrics.getCellsVisited();
+        revisits = metrics.getRevisits();
+        factorizeNanos = metrics.getFactorizeNanos();
+    }
+}
@@ -0,0 +1,44 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.time.Duration;
+
+//Step budget, time limit and cancellation token given to AbstractPathSolver.solvePath(), each one optional
+class SolveLimits {
+    static final SolveLimits NONE = new SolveLimits(Long.MAX_VALUE, null, null);
+
+    private final long maxSteps;
+    private final Duration timeout;
+    private final CancellationToken token;
+
+    //timeout and token may be null, the solver then runs without that limit
+    public SolveLimits(long maxSteps, Duration timeout, CancellationToken token) {
+        if (maxSteps < 0) {
+            throw new IllegalArgumentException("Step budget must not be negative, got " + maxSteps);
+        }
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative, got " + timeout);
+        }
+        this.maxSteps = maxSteps;
+        this.timeout = timeout;
+        this.token = token;
+    }
+
+    /* Public method: withToken()
+    Description: copies these limits with another cancellation token (e.g. one per request)
+    Returns: SolveLimits */
+    public SolveLimits withToken(CancellationToken token) {
+        return new SolveLimits(maxSteps, timeout, token);
+    }
+
+    public long getMaxSteps() {
+        return maxSteps;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+}
@@ -0,0 +1,29 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Outcome of AbstractPathSolver.solvePath()
+enum SolveStatus {
+    SOLVED("the runner reached the exit", false),
+    UNSOLVABLE("the exit cannot be reached from the entry", false),
+    STEP_LIMIT("the step budget ran out", true),
+    TIMED_OUT("the time limit ran out", true),
+    CANCELLED("the solve was cancelled", true);
+
+    private final String description;
+    private final boolean limit;
+
+    SolveStatus(String description, boolean limit) {
+        this.description = description;
+        this.limit = limit;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /* Public method: isLimit()
+    Description: checks if the solver was stopped by a SolveLimits, its path so far is then a partial result
+    Returns: boolean */
+    public boolean isLimit() {
+        return limit;
+    }
+}
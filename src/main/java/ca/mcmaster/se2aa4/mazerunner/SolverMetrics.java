@@ -0,0 +1,139 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+import java.util.Locale;
+
+/*Counters and phase timings of one solve: steps, F/L/R moves, unique cells entered and revisits,
+plus the load, entry/exit detection, solve and factorize times. Collected only when asked for
+(AbstractPathSolver.enableMetrics() or a JFR recording of SolveEvent), the visited set costs one bit per cell */
+class SolverMetrics {
+    private final String method;
+    private final int cols;
+    private final long[] visitedCells;
+
+    private SolveStatus status;
+    private long steps;
+    private long forwardMoves;
+    private long leftTurns;
+    private long rightTurns;
+    private long cellsVisited;
+    private long revisits;
+    private long loadNanos;
+    private long entryExitNanos;
+    private long solveNanos;
+    private long factorizeNanos;
+
+    //The start cell counts as visited
+    public SolverMetrics(String method, MazeGrid grid, int startRow, int startCol) {
+        this.method = method;
+        this.cols = grid.getCols();
+        this.visitedCells = new long[Math.toIntExact(((long) grid.getRows() * cols + 63) >>> 6)];
+        visit(startRow, startCol);
+    }
+
+    /* Public method: recordMove()
+    Description: counts one F/L/R move, person is the runner after the move
+    Returns: void */
+    public void recordMove(char move, Person person) {
+        switch (move) {
+            case 'F':
+                forwardMoves++;
+                visit(person.getRow(), person.getCol());
+                break;
+            case 'L':
+                leftTurns++;
+                break;
+            case 'R':
+                rightTurns++;
+                break;
+        }
+    }
+
+    private void visit(int row, int col) {
+        long bit = (long) row * cols + col;
+        int word = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        if ((visitedCells[word] & mask) != 0) {
+            revisits++;
+        } else {
+            visitedCells[word] |= mask;
+            cellsVisited++;
+        }
+    }
+
+    /* Public method: finish()
+    Description: records the outcome of solvePath(), called once it returns
+    Returns: void */
+    public void finish(SolveStatus status, long steps, long solveNanos, long factorizeNanos) {
+        this.status = status;
+        this.steps = steps;
+        this.solveNanos = solveNanos;
+        this.factorizeNanos = factorizeNanos;
+    }
+
+    /* Public method: setMazeTimings()
+    Description: adds the load and entry/exit detection times measured by Maze
+    Returns: void */
+    public void setMazeTimings(long loadNanos, long entryExitNanos) {
+        this.loadNanos = loadNanos;
+        this.entryExitNanos = entryExitNanos;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getForwardMoves() {
+        return forwardMoves;
+    }
+
+    public long getLeftTurns() {
+        return leftTurns;
+    }
+
+    public long getRightTurns() {
+        return rightTurns;
+    }
+
+    public long getCellsVisited() {
+        return cellsVisited;
+    }
+
+    public long getRevisits() {
+        return revisits;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    public long getFactorizeNanos() {
+        return factorizeNanos;
+    }
+
+    /* Public method: getStepsPerSecond()
+    Description: gets the solve throughput, search time included
+    Returns: double */
+    public double getStepsPerSecond() {
+        return solveNanos == 0 ? 0 : steps * 1e9 / solveNanos;
+    }
+
+    /* Public method: toJson()
+    Description: renders the metrics as one JSON object
+    Returns: String */
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"method\":\"%s\",\"status\":\"%s\",\"steps\":%d,\"forwardMoves\":%d,\"leftTurns\":%d,\"rightTurns\":%d,"
+                        + "\"cellsVisited\":%d,\"revisits\":%d,\"stepsPerSecond\":%.1f,"
+                        + "\"phases\":{\"loadNanos\":%d,\"entryExitNanos\":%d,\"solveNanos\":%d,\"factorizeNanos\":%d}}",
+                method, status, steps, forwardMoves, leftTurns, rightTurns, cellsVisited, revisits, getStepsPerSecond(),
+                loadNanos, entryExitNanos, solveNanos, factorizeNanos);
+    }
+}
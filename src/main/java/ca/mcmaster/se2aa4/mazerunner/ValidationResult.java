@@ -0,0 +1,63 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Class holding the outcome of a path validation
+class ValidationResult {
+    private final boolean valid;
+    private final String failure;
+    private final long failureOffset;
+    private final int row;
+    private final int col;
+    private final long steps;
+
+    public ValidationResult(boolean valid, String failure, long failureOffset, int row, int col, long steps) {
+        this.valid = valid;
+        this.failure = failure;
+        this.failureOffset = failureOffset;
+        this.row = row;
+        this.col = col;
+        this.steps = steps;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /* Public method: getFailure()
+    Description: gets why the path is invalid, null for a valid path
+    Returns: String */
+    public String getFailure() {
+        return failure;
+    }
+
+    /* Public method: getFailureOffset()
+    Description: gets the character offset of the token where validation stopped, -1 if no token failed.
+    Moves given as a PathBuffer count as their canonical text, one character per move, so the offset is a move index
+    Returns: long */
+    public long getFailureOffset() {
+        return failureOffset;
+    }
+
+    /* Public method: getCellReached()
+    Description: gets the {row, col} of the runner when validation ended
+    Returns: int[] */
+    public int[] getCellReached() {
+        return new int[] {row, col};
+    }
+
+    /* Public method: getSteps()
+    Description: gets the number of cells walked before validation ended
+    Returns: long */
+    public long getSteps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        if (valid) {
+            return "valid path, " + steps + " steps to (" + row + ", " + col + ")";
+        }
+        return "invalid path: " + failure + (failureOffset >= 0 ? " at offset " + failureOffset : "")
+                + ", stopped at (" + row + ", " + col + ") after " + steps + " steps";
+    }
+
+}
@@ -0,0 +1,79 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+//Precomputed number of open cells between every cell and the next wall, in each direction
+class WallDistanceTable {
+    //16 bytes per cell, larger mazes use a WallScanner instead (64 MB at most)
+    static final long MAX_CELLS = 1L << 22;
+
+    private final int cols;
+    //Indexed by cell id (row * cols + col)
+    private final int[] north;
+    private final int[] east;
+    private final int[] south;
+    private final int[] west;
+
+    public WallDistanceTable(MazeGrid grid) {
+        int rows = grid.getRows();
+        this.cols = grid.getCols();
+        if (!fits(grid)) {
+            throw new IllegalArgumentException("Maze too large for a wall distance table: " + rows + "x" + cols);
+        }
+        int cells = rows * cols;
+        north = new int[cells];
+        east = new int[cells];
+        south = new int[cells];
+        west = new int[cells];
+
+        //One sweep per row for West/East, one per column for North/South
+        for (int row = 0; row < rows; row++) {
+            int base = row * cols;
+            for (int col = 1; col < cols; col++) {
+                if (!grid.isWall(row, col) && !grid.isWall(row, col - 1)) {
+                    west[base + col] = west[base + col - 1] + 1;
+                }
+            }
+            for (int col = cols - 2; col >= 0; col--) {
+                if (!grid.isWall(row, col) && !grid.isWall(row, col + 1)) {
+                    east[base + col] = east[base + col + 1] + 1;
+                }
+            }
+        }
+        for (int col = 0; col < cols; col++) {
+            for (int row = 1; row < rows; row++) {
+                if (!grid.isWall(row, col) && !grid.isWall(row - 1, col)) {
+                    north[row * cols + col] = north[(row - 1) * cols + col] + 1;
+                }
+            }
+            for (int row = rows - 2; row >= 0; row--) {
+                if (!grid.isWall(row, col) && !grid.isWall(row + 1, col)) {
+                    south[row * cols + col] = south[(row + 1) * cols + col] + 1;
+                }
+            }
+        }
+    }
+
+    /* Public static method: fits()
+    Description: checks if a table for the grid stays under MAX_CELLS
+    Returns: boolean */
+    public static boolean fits(MazeGrid grid) {
+        return (long) grid.getRows() * grid.getCols() <= MAX_CELLS;
+    }
+
+    /* Public method: distance()
+    Description: gets how many steps can be taken from a cell in a direction (0 = N, 1 = E, 2 = S, 3 = W) before hitting a wall
+    Returns: int */
+    public int distance(int row, int col, int direction) {
+        int cell = row * cols + col;
+        switch (direction) {
+            case 0:
+                return north[cell];
+            case 1:
+                return east[cell];
+            case 2:
+                return south[cell];
+            default:
+                return west[cell];
+        }
+    }
+
+}
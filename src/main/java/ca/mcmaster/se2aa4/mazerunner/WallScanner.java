@@ -0,0 +1,83 @@
+package ca.mcmaster.se2aa4.mazerunner;
+
+/*Finds the next wall along a row or column 64 cells at a time, for mazes too large for a WallDistanceTable.
+Walls are kept as two bitsets of one bit per cell: by rows (bit row * cols + col, the grid's own words when
+it is row-major) and by columns (bit col * rows + row), so every direction is a scan over consecutive bits */
+class WallScanner {
+    private final int rows;
+    private final int cols;
+    private final long[] rowBits;
+    private final long[] colBits;
+
+    public WallScanner(MazeGrid grid) {
+        this.rows = grid.getRows();
+        this.cols = grid.getCols();
+        boolean rowMajor = !grid.isTiled();
+        int words = Math.toIntExact(((long) rows * cols + 63) >>> 6);
+        rowBits = rowMajor ? grid.getWords() : new long[words];
+        colBits = new long[words];
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                if (grid.isWall(row, col)) {
+                    if (!rowMajor) {
+                        set(rowBits, (long) row * cols + col);
+                    }
+                    set(colBits, (long) col * rows + row);
+                }
+            }
+        }
+    }
+
+    /* Public method: reachable()
+    Description: counts the open cells ahead of a cell in a direction (0 = N, 1 = E, 2 = S, 3 = W), up to limit
+    Returns: int */
+    public int reachable(int row, int col, int direction, int limit) {
+        switch (direction) {
+            case 0:
+                return backward(colBits, (long) col * rows + row, row, limit);
+            case 1:
+                return forward(rowBits, (long) row * cols + col, cols - 1 - col, limit);
+            case 2:
+                return forward(colBits, (long) col * rows + row, rows - 1 - row, limit);
+            default:
+                return backward(rowBits, (long) row * cols + col, col, limit);
+        }
+    }
+
+    /* Private static method: forward()
+    Description: counts the clear bits after bit, at most room (cells left in the line) and limit
+    Returns: int */
+    private static int forward(long[] bits, long bit, int room, int limit) {
+        int max = Math.min(room, limit);
+        long end = bit + 1 + max; //scans bit + 1 to end - 1
+        for (long index = bit + 1; index < end; index = (index | 63) + 1) {
+            //A long shift only uses the low 6 bits of index, the cells before it in the word drop out
+            long word = bits[(int) (index >>> 6)] >>> index;
+            if (word != 0) {
+                return (int) (Math.min(index + Long.numberOfTrailingZeros(word), end) - bit - 1);
+            }
+        }
+        return max;
+    }
+
+    /* Private static method: backward()
+    Description: counts the clear bits before bit, at most room (cells before it in the line) and limit
+    Returns: int */
+    private static int backward(long[] bits, long bit, int room, int limit) {
+        int max = Math.min(room, limit);
+        long end = bit - 1 - max; //scans bit - 1 down to end + 1
+        for (long index = bit - 1; index > end; index = (index & ~63L) - 1) {
+            //Moves the cells up to index to the top of the word, those after it drop out
+            long word = bits[(int) (index >>> 6)] << (63 - (index & 63));
+            if (word != 0) {
+                return (int) (bit - 1 - Math.max(index - Long.numberOfLeadingZeros(word), end));
+            }
+        }
+        return max;
+    }
+
+    private static void set(long[] bits, long bit) {
+        bits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+
+}
@@ -1,9 +1,24 @@
 package ca.mcmaster.se2aa4.mazerunner;
+import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
-
+import java.io.PrintWriter;
+import java.net.SocketException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 
 
@@ -200,4 +215,548 @@ public class MainTest {
         assertTrue(outputString.contains("Invalid path!"));
     }
 
+    @Test
+    void shortestPathMethodTest() {
+        //input
+        String[] args = {"-i", "./examples/small.maz.txt", "--method", "bfs"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains the shortest path
+        assertTrue(outputString.contains("Canonical Path: FLFRFFLFFFFFFRFFFFRFFLFFRFFLF"));
+        assertTrue(outputString.contains("Factorized Path: F L F R 2F L 6F R 4F R 2F L 2F R 2F L F"));
+    }
+
+    @Test
+    void bidirectionalAStarMethodTest() {
+        //input
+        String[] args = {"-i", "./examples/small.maz.txt", "--method", "astar"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains a path as short as the BFS one
+        assertTrue(outputString.contains("Factorized Path: F L F R 2F L 6F R 4F R 2F L 2F R 2F L F"));
+    }
+
+    @Test
+    void junctionGraphMethodTest() {
+        //input
+        String[] args = {"-i", "./examples/small.maz.txt", "--method", "graph"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains a path as short as the BFS one
+        assertTrue(outputString.contains("Factorized Path: F L F R 2F L 6F R 4F R 2F L 2F R 2F L F"));
+    }
+
+    @Test
+    void fillDeadEndsTest() {
+        //input, with the dead ends filled the wall follower only sees the route to the exit
+        String[] args = {"-i", "./examples/small.maz.txt", "--fill-dead-ends"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains the same path as BFS on the full maze
+        assertTrue(outputString.contains("Canonical Path: FLFRFFLFFFFFFRFFFFRFFLFFRFFLF"));
+    }
+
+    @Test
+    void batchModeTest() {
+        //input
+        String[] args = {"--batch", "./examples/s*.maz.txt"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate both mazes are solved, in file order, followed by the summary
+        assertTrue(outputString.indexOf("small.maz.txt ==") < outputString.indexOf("straight.maz.txt =="));
+        assertTrue(outputString.contains("Factorized Path: 4F"));
+        assertTrue(outputString.contains("Batch summary: 2 mazes, 2 solved, 0 failed"));
+    }
+
+    @Test
+    void validPathFromFileTest(@TempDir Path tempDir) throws IOException {
+        //input, the path is streamed from a file instead of -p
+        Path pathFile = tempDir.resolve("tiny.path");
+        Files.writeString(pathFile, "3F L 4F R 3F\n");
+        String[] args = {"-i", "./examples/tiny.maz.txt", "--path-file", pathFile.toString()};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("Valid path!"));
+    }
+
+    @Test //path ends on the exit but walks through walls on the way
+    void invalidPathThroughWallsTest() {
+        //input
+        String[] args = {"-i", "./examples/tiny.maz.txt", "-p", "L 4F R 6F"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("Invalid path!"));
+    }
+
+    @Test //the result of an invalid path says which token failed, where the runner stopped and how far it walked
+    void validationResultTest() {
+        //input, the runner enters tiny facing east and the run of 5F north hits the wall after 4 cells
+        Maze maze = new Maze("./examples/tiny.maz.txt", false);
+        MazeGrid grid = maze.getGrid();
+        int[] entry = maze.getEntry();
+        Person runner = new Person(grid, maze.getInitialFace(), entry, entry, maze.getExit());
+
+        //Validate the path
+        ValidationResult validation = new ValidatePath(runner).validate("3F L 5F R 3F");
+
+        //Validate the result fields
+        assertFalse(validation.isValid());
+        assertEquals("wall found in path", validation.getFailure());
+        assertEquals(5, validation.getFailureOffset());
+        assertArrayEquals(new int[] {1, 3}, validation.getCellReached());
+        assertEquals(7, validation.getSteps());
+
+        //Validate the largest int count is read as a run and not rejected as too large
+        Person longRunner = new Person(grid, maze.getInitialFace(), entry, entry, maze.getExit());
+        assertEquals("wall found in path", new ValidatePath(longRunner).validate("2147483647F").getFailure());
+        assertEquals("run-length count too large", new ValidatePath(longRunner).validate("2147483648F").getFailure());
+    }
+
+    @Test //a count of 0 is a run of no moves, as the validator reads it, and expanding then factorizing gives the path back
+    void factorizedPathDecodeTest() {
+        //input
+        String factorized = "F R F 2L 2F R 2F R 2F 2L 4F R 2F R 4F 2L 2F R 4F R 2F R 2F 2L 2F L 2F L 4F R 2F R 2F 2L 4F R 2F R 2F 2L 2F R 2F R 4F R 2F L 2F R 2F L F ";
+
+        //Validate the expanded paths
+        assertEquals("", PathCodec.decode("0F"));
+        assertEquals("FFFLFFFFFFFFFFFF", PathCodec.decode("3F L 0R 12F"));
+        assertEquals(factorized, PathCodec.encode(PathCodec.decode(factorized)));
+    }
+
+    @Test //moves kept as 2-bit codes render back to the same text, runs crossing a 32-move word included
+    void pathBufferTest() {
+        //input, a run of 40 F spans two words
+        String canonical = "FRF" + "F".repeat(40) + "LLR";
+        PathBuffer path = new PathBuffer();
+        for (char move : canonical.toCharArray()) {
+            path.append(move);
+        }
+
+        //Validate the moves, runs and text forms
+        assertEquals(canonical.length(), path.length());
+        assertEquals('L', path.moveAt(43));
+        assertEquals(43, path.runEnd(2));
+        assertEquals(canonical, path.toString());
+        assertEquals(PathCodec.encode(canonical), path.toFactorized());
+        assertEquals("F R 41F 2L R ", path.toFactorized());
+
+        //Validate a cleared path is empty and can be filled again
+        path.clear();
+        assertTrue(path.isEmpty());
+        path.append('R');
+        assertEquals("R", path.toString());
+    }
+
+    @Test //the word-at-a-time wall scanner used on huge mazes agrees with the wall distance table, in both grid layouts
+    void wallScannerTest() {
+        for (boolean tiled : new boolean[] {false, true}) {
+            //input
+            MazeGrid grid = new Maze("./examples/huge.maz.txt", tiled).getGrid();
+            WallDistanceTable table = new WallDistanceTable(grid);
+            WallScanner scanner = new WallScanner(grid);
+
+            //Validate every open cell, direction and a few run lengths
+            for (int row = 0; row < grid.getRows(); row++) {
+                for (int col = 0; col < grid.getCols(); col++) {
+                    if (grid.isWall(row, col)) {
+                        continue;
+                    }
+                    for (int direction = 0; direction < 4; direction++) {
+                        int distance = table.distance(row, col, direction);
+                        for (int limit : new int[] {0, 1, 3, 70, Integer.MAX_VALUE}) {
+                            assertEquals(Math.min(distance, limit), scanner.reachable(row, col, direction, limit));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void mazeCacheReloadTest(@TempDir Path tempDir) throws IOException {
+        //input, a copy of the maze so the cache is written next to it in the temporary directory
+        Path mazeFile = tempDir.resolve("small.maz.txt");
+        Files.copy(Path.of("./examples/small.maz.txt"), mazeFile);
+        String[] args = {"-i", mazeFile.toString(), "--maze-cache", "--precompute"};
+
+        //Run program twice, the second run reads the cache written by the first
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(firstOutput));
+        Main.main(args);
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(secondOutput));
+        Main.main(args);
+
+        //Validate the cache exists and both runs print the same path
+        assertTrue(Files.exists(tempDir.resolve("small.maz.txt.cache")));
+        assertTrue(secondOutput.toString().contains("Factorized Path: F R F 2L 2F R 2F R 2F 2L 4F R 2F R 4F 2L 2F R 4F R 2F R 2F 2L 2F L 2F L 4F R 2F R 2F 2L 4F R 2F R 2F 2L 2F R 2F R 4F R 2F L 2F R 2F L F"));
+        assertTrue(firstOutput.toString().equals(secondOutput.toString()));
+    }
+
+    @Test
+    void resultCacheHitTest(@TempDir Path tempDir) {
+        //input, the same maze is solved twice with the same method
+        String[] args = {"-i", "./examples/tiny.maz.txt", "--method", "bfs", "--result-cache", tempDir.toString()};
+
+        //Run program twice, the second run is answered from the cache
+        ByteArrayOutputStream firstOutput = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(firstOutput));
+        Main.main(args);
+        ByteArrayOutputStream secondOutput = new ByteArrayOutputStream();
+        ByteArrayOutputStream secondErrors = new ByteArrayOutputStream();
+        PrintStream stderr = System.err;
+        System.setOut(new PrintStream(secondOutput));
+        System.setErr(new PrintStream(secondErrors));
+        try {
+            Main.main(args);
+        } finally {
+            System.setErr(stderr);
+        }
+
+        //Validate the cached run prints the same paths and counts a hit
+        assertTrue(secondOutput.toString().contains("Canonical Path: FFFLFFFFRFFF"));
+        assertTrue(firstOutput.toString().equals(secondOutput.toString()));
+        assertTrue(secondErrors.toString().contains("Result cache: 1 hits, 0 misses"));
+    }
+
+    @Test
+    void serverModeTest(@TempDir Path tempDir) throws Exception {
+        //input, the server runs on a daemon thread and listens on a Unix-domain socket
+        Path socketFile = tempDir.resolve("mazerunner.sock");
+        Thread server = new Thread(() -> Main.main(new String[] {"--serve", "unix:" + socketFile}));
+        server.setDaemon(true);
+        server.start();
+
+        //Connect once the server listens (the socket file appears just before that), then send a solve and an inline validate request
+        SocketChannel connection = null;
+        for (int attempt = 0; connection == null; attempt++) {
+            try {
+                connection = SocketChannel.open(UnixDomainSocketAddress.of(socketFile));
+            } catch (SocketException e) { //refused, or no socket file yet
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+        StringBuilder replies = new StringBuilder();
+        try (SocketChannel client = connection;
+             BufferedReader in = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(Channels.newWriter(client, StandardCharsets.UTF_8))) {
+            out.print("SOLVE ./examples/tiny.maz.txt bfs\nVALIDATE - 4F\n" + Files.readString(Path.of("./examples/straight.maz.txt")) + "END\nQUIT\n");
+            out.flush();
+            String line;
+            while ((line = in.readLine()) != null) {
+                replies.append(line).append('\n');
+            }
+        }
+
+        //Validate both requests are answered in order
+        assertTrue(replies.toString().contains("Canonical Path: FFFLFFFFRFFF\nFactorized Path: 3F L 4F R 3F \nOK\nValid path!\nOK\n"));
+    }
+
+    @Test //a request line over the limit is answered with an error and the connection is closed, the server does not buffer it
+    void serverLineLimitTest(@TempDir Path tempDir) throws Exception {
+        //input, the server runs on a daemon thread and listens on a Unix-domain socket
+        Path socketFile = tempDir.resolve("mazerunner.sock");
+        Thread server = new Thread(() -> Main.main(new String[] {"--serve", "unix:" + socketFile}));
+        server.setDaemon(true);
+        server.start();
+
+        //Connect once the server listens, then send one line of 16M chars and more without a line break
+        SocketChannel connection = null;
+        for (int attempt = 0; connection == null; attempt++) {
+            try {
+                connection = SocketChannel.open(UnixDomainSocketAddress.of(socketFile));
+            } catch (SocketException e) { //refused, or no socket file yet
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(50);
+            }
+        }
+        String reply;
+        try (SocketChannel client = connection;
+             BufferedReader in = new BufferedReader(Channels.newReader(client, StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(Channels.newWriter(client, StandardCharsets.UTF_8))) {
+            out.print("VALIDATE ./examples/tiny.maz.txt " + "F".repeat(16 << 20));
+            out.flush();
+            reply = in.readLine();
+            //Validate the connection is closed after the answer
+            assertEquals(null, in.readLine());
+        }
+
+        //Validate the request is rejected
+        assertEquals("ERROR Request line longer than " + (16 << 20) + " chars", reply);
+    }
+
+    @Test //the exit is walled off, the wall follower must give up instead of looping forever
+    void unsolvableMazeTest(@TempDir Path tempDir) throws IOException {
+        //input
+        Path mazeFile = tempDir.resolve("walled.maz.txt");
+        Files.writeString(mazeFile, "#####\n  # #\n### #\n#    \n#####\n");
+        String[] args = {"-i", mazeFile.toString()};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("No path found: the exit cannot be reached from the entry"));
+    }
+
+    @Test //a maze without any opening on its borders has no entry or exit, nothing is solved and no path is valid
+    void closedMazeTest(@TempDir Path tempDir) throws IOException {
+        //input
+        Path mazeFile = tempDir.resolve("closed.maz.txt");
+        Files.writeString(mazeFile, "#####\n#   #\n# # #\n#   #\n#####\n");
+
+        //Run program, solving with two methods and checking an empty path
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+        Main.main(new String[] {"-i", mazeFile.toString()});
+        Main.main(new String[] {"-i", mazeFile.toString(), "--method", "bfs"});
+        ByteArrayOutputStream validation = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(validation));
+        Main.main(new String[] {"-i", mazeFile.toString(), "-p", ""});
+
+        //Validate output contains expected text
+        assertEquals("No path found: the maze has no entry opening\n".repeat(2), output.toString().replace(System.lineSeparator(), "\n"));
+        assertTrue(validation.toString().contains("Invalid path!"));
+    }
+
+    @Test //a step budget stops the wall follower early and prints the moves made so far
+    void stepBudgetTest() {
+        //input
+        String[] args = {"-i", "./examples/giant.maz.txt", "--max-steps", "10"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("No path found: the step budget ran out after 10 steps"));
+        assertTrue(outputString.contains("Partial Path: "));
+    }
+
+    @Test //--metrics prints the move counters of the solve as JSON on the standard error
+    void metricsTest() {
+        //input
+        String[] args = {"-i", "./examples/tiny.maz.txt", "--method", "bfs", "--metrics"};
+
+        //Capture output and errors
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        PrintStream stderr = System.err;
+        System.setOut(new PrintStream(output));
+        System.setErr(new PrintStream(errors));
+
+        //Run program
+        try {
+            Main.main(args);
+        } finally {
+            System.setErr(stderr);
+        }
+
+        //Validate the path is unchanged and the counters match it (FFFLFFFFRFFF)
+        assertTrue(output.toString().contains("Canonical Path: FFFLFFFFRFFF"));
+        assertTrue(errors.toString().contains("\"status\":\"SOLVED\",\"steps\":12,\"forwardMoves\":10,\"leftTurns\":1,\"rightTurns\":1,\"cellsVisited\":11,\"revisits\":0"));
+    }
+
+    @Test //--stream writes only the factorized path, token by token while the runner walks
+    void streamTest() {
+        //input
+        String[] args = {"-i", "./examples/tiny.maz.txt", "--method", "bfs", "--stream"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("Factorized Path: 3F L 4F R 3F"));
+        assertTrue(!outputString.contains("Canonical Path"));
+    }
+
+    @Test //a streamed path cut short is marked partial, and a cached path is streamed without its canonical form
+    void streamPartialAndCachedTest(@TempDir Path tempDir) {
+        //Run program, first stopped by a step budget, then twice through the result cache
+        ByteArrayOutputStream stopped = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(stopped));
+        Main.main(new String[] {"-i", "./examples/giant.maz.txt", "--stream", "--max-steps", "10"});
+        Main.main(new String[] {"-i", "./examples/tiny.maz.txt", "--method", "bfs", "--result-cache", tempDir.toString()});
+        ByteArrayOutputStream cached = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(cached));
+        Main.main(new String[] {"-i", "./examples/tiny.maz.txt", "--method", "bfs", "--result-cache", tempDir.toString(), "--stream"});
+
+        //Validate output contains expected text
+        assertTrue(stopped.toString().contains(RunLengthWriter.PARTIAL + "\nNo path found: the step budget ran out after 10 steps"));
+        assertTrue(cached.toString().contains("Factorized Path: 3F L 4F R 3F"));
+        assertFalse(cached.toString().contains("Canonical Path"));
+    }
+
+    @Test //race mode keeps the first path found, whichever solver it comes from it must be valid
+    void raceTest() {
+        //input
+        String[] args = {"-i", "./examples/small.maz.txt", "--method", "race"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output, then check the winning path
+        String outputString = output.toString();
+        assertTrue(outputString.contains("Canonical Path: "));
+        String canonical = outputString.lines().filter(line -> line.startsWith("Canonical Path: ")).findFirst().orElseThrow().substring("Canonical Path: ".length());
+        ByteArrayOutputStream validation = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(validation));
+        Main.main(new String[] {"-i", "./examples/small.maz.txt", "-p", canonical});
+
+        //Validate output contains expected text
+        assertTrue(validation.toString().contains("Valid path!"));
+    }
+
+    @Test //a race stopped by a step budget shows how far its furthest entrant got
+    void raceStepBudgetTest() {
+        //input
+        String[] args = {"-i", "./examples/giant.maz.txt", "--method", "race", "--max-steps", "5"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("No path found: the step budget ran out after 5 steps"));
+        assertTrue(outputString.contains("went furthest)"));
+        assertFalse(outputString.contains("Partial Path: \n"));
+    }
+
+    @Test //a race won within the step budget is not stopped by it again while the winning moves are walked
+    void raceWinnerWithinStepBudgetTest() {
+        //input, the right hand rule solves small in 79 steps of 95 moves (a step can turn and move forward)
+        Maze maze = new Maze("./examples/small.maz.txt", false);
+        MazeGrid grid = maze.getGrid();
+        int[] entry = maze.getEntry();
+        Person runner = new Person(grid, maze.getInitialFace(), entry, entry, maze.getExit());
+        RacePathSolver race = new RacePathSolver(runner, List.of("righthand"));
+        race.setOutput(new PrintStream(new ByteArrayOutputStream()));
+        race.setLimits(new SolveLimits(79, null, null));
+
+        //Validate the race is won with the whole path
+        assertEquals(SolveStatus.SOLVED, race.solvePath());
+        assertEquals("righthand", race.getWinner());
+        assertEquals(95, race.getPath().length());
+    }
+
+    @Test //the parallel search finds the same shortest path as the serial one
+    void parallelBfsTest() {
+        //input
+        String[] args = {"-i", "./examples/tiny.maz.txt", "--method", "parallel-bfs"};
+
+        //Capture output
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(output));
+
+        //Run program
+        Main.main(args);
+
+        //Capture output
+        String outputString = output.toString();
+
+        //Validate output contains expected text
+        assertTrue(outputString.contains("Canonical Path: FFFLFFFFRFFF"));
+        assertTrue(outputString.contains("Factorized Path: 3F L 4F R 3F"));
+    }
+
 }